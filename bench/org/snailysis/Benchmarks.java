@@ -0,0 +1,38 @@
+package org.snailysis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark of the game with the GC profiler, reporting the time per operation in ns/op
+ * together with the allocation rate.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() { }
+
+    /**
+     * Runs the benchmarks whose name matches the given regular expressions, or all of them if none is given.
+     *
+     * @param args
+     *          the regular expressions selecting the benchmarks
+     * @throws RunnerException
+     *          if the benchmarks cannot be run
+     */
+    public static void main(final String[] args) throws RunnerException {
+        final OptionsBuilder options = new OptionsBuilder();
+        if (args.length == 0) {
+            options.include("org\\.snailysis\\..*Benchmark");
+        }
+        for (final String arg : args) {
+            options.include(arg);
+        }
+        new Runner(options.addProfiler(GCProfiler.class)
+                          .timeUnit(TimeUnit.NANOSECONDS)
+                          .build()).run();
+    }
+}
@@ -0,0 +1,206 @@
+package org.snailysis.model.entities.function;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.jscience.mathematics.number.Rational;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
+
+/**
+ * Benchmarks of the function algebra, for each representation of the polynomials and for different grades.
+ * The benchmark lives in the same package of the functions so that BasicPolynomial2D can be measured directly,
+ * even if the factories only create it when long fractions overflow, and so that the text representation
+ * can be measured without the cache of toString.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionBenchmark {
+
+    private static final int POINTS = 256;
+
+    /**
+     * The representations of the polynomials.
+     */
+    public enum Engine {
+        /**
+         * Exact polynomials with jScience coefficients, whose results are narrowed back to long fractions
+         * when they fit, so the narrowing is measured too.
+         */
+        BASIC(BasicPolynomial2D.class, (n, d) -> BasicPolynomial2D.valueOf(IntStream.range(0, n.length)
+                                                                                 .mapToObj(i -> Rational.valueOf(n[i], d[i]))
+                                                                                 .toArray(Rational[]::new))),
+        /**
+         * Exact polynomials with long fractions.
+         */
+        RATIONAL(RationalPolynomial2D.class, RationalPolynomial2D::valueOf),
+        /**
+         * Double precision polynomials.
+         */
+        PRIMITIVE(DoublePolynomial2D.class, (n, d) -> DoublePolynomial2D.valueOf(IntStream.range(0, n.length)
+                                                                                          .mapToDouble(i -> (double) n[i] / d[i])
+                                                                                          .toArray()));
+
+        private final Class<? extends AbstractPolynomial2D> type;
+        private final PolynomialFactory factory;
+
+        Engine(final Class<? extends AbstractPolynomial2D> type, final PolynomialFactory factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        // creates the polynomial directly in this representation, checking that no factory has changed it
+        private AbstractPolynomial2D create(final long[] numerators, final long[] denominators) {
+            final Function2D polynomial = factory.create(numerators, denominators);
+            ExceptionUtilities.throwExceptionIf(!type.isInstance(polynomial),
+                                                new IllegalStateException(polynomial.getClass() + " is not " + type));
+            return type.cast(polynomial);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PolynomialFactory {
+        Function2D create(long[] numerators, long[] denominators);
+    }
+
+    /**
+     * The representation of the polynomials.
+     */
+    @Param
+    public Engine engine;
+
+    /**
+     * The grade of the benchmarked polynomial.
+     */
+    @Param({ "1", "3", "6" })
+    public int grade;
+
+    private AbstractPolynomial2D function;
+    private Function2D inner;
+    private final double[] xs = new double[POINTS];
+    private final double[] out = new double[POINTS];
+    private double x;
+
+    /**
+     * Creates f(x) = sum of (i + 1) / (i + 2) x^i for i up to the grade, and g(x) = x/2 + 1 to compose it with.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final long[] numerators = new long[grade + 1];
+        final long[] denominators = new long[grade + 1];
+        for (int i = 0; i <= grade; i++) {
+            numerators[i] = i + 1;
+            denominators[i] = i + 2;
+        }
+        function = engine.create(numerators, denominators);
+        inner = engine.create(new long[] {1, 1}, new long[] {1, 2});
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = (double) i / POINTS;
+        }
+    }
+
+    /**
+     * Evaluates the function at a point.
+     *
+     * @return
+     *          the value of the function
+     */
+    @Benchmark
+    public double evaluateAt() {
+        x = x < 1 ? x + 1.0 / POINTS : 0;
+        return function.evaluateAt(x);
+    }
+
+    /**
+     * Evaluates the function at many points at once.
+     *
+     * @return
+     *          the array of the values
+     */
+    @Benchmark
+    public double[] evaluateAtBatch() {
+        function.evaluateAt(xs, out, POINTS);
+        return out;
+    }
+
+    /**
+     * Composes the function with a linear one.
+     *
+     * @return
+     *          the composed function
+     */
+    @Benchmark
+    public Function2D compose() {
+        return function.compose(inner);
+    }
+
+    /**
+     * Squares the function.
+     *
+     * @return
+     *          the squared function
+     */
+    @Benchmark
+    public Function2D powerOnY() {
+        return function.powerOnY(2);
+    }
+
+    /**
+     * Differentiates the function.
+     *
+     * @return
+     *          the derivative
+     */
+    @Benchmark
+    public Function2D differentiate() {
+        return function.differentiate();
+    }
+
+    /**
+     * Integrates the function.
+     *
+     * @return
+     *          the integral
+     */
+    @Benchmark
+    public Function2D integrate() {
+        return function.integrate();
+    }
+
+    /**
+     * Copies the function.
+     *
+     * @return
+     *          the copy
+     */
+    @Benchmark
+    public Function2D getCopy() {
+        return function.getCopy();
+    }
+
+    /**
+     * Computes the text representation of the function, which toString would compute only once.
+     *
+     * @return
+     *          the text
+     */
+    @Benchmark
+    public String textRepresentation() {
+        return function.textRepresentation();
+    }
+}
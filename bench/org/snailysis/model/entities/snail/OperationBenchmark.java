@@ -0,0 +1,108 @@
+package org.snailysis.model.entities.snail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.snailysis.model.entities.function.Function2D;
+
+/**
+ * Benchmarks of chains of operations applied to each initial trajectory, as a player would do during a level.
+ * Chains are measured both with a cold operation cache and with a warm one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperationBenchmark {
+
+    private static final Operation[] CHAIN = {
+        Operation.TWO_X, Operation.SQUARED_Y, Operation.DIFFERENTIATE, Operation.HALF_Y,
+        Operation.INTEGRATE, Operation.NEGATIVE_X, Operation.THIRD_X, Operation.SQUARED_X,
+    };
+
+    /**
+     * The trajectory the chain starts from.
+     */
+    @Param
+    public InitialTrajectory trajectory;
+
+    /**
+     * Applies the chain of operations computing each result.
+     *
+     * @param state
+     *          a state whose operation cache is emptied before each chain
+     * @return
+     *          the final trajectory
+     */
+    @Benchmark
+    public Function2D coldChain(final ColdCache state) {
+        return applyChain();
+    }
+
+    /**
+     * Applies the chain of operations when each result is already in the operation cache.
+     *
+     * @param state
+     *          a state whose operation cache has already been filled
+     * @return
+     *          the final trajectory
+     */
+    @Benchmark
+    public Function2D warmChain(final WarmCache state) {
+        return applyChain();
+    }
+
+    /**
+     * State that empties the operation cache before each invocation, for the cold benchmark.
+     */
+    @State(Scope.Thread)
+    public static class ColdCache {
+        /**
+         * Empties the operation cache.
+         */
+        @Setup(Level.Invocation)
+        public void clear() {
+            OperationCache.getInstance().clear();
+        }
+    }
+
+    /**
+     * State that fills the operation cache once per trial, for the warm benchmark.
+     */
+    @State(Scope.Thread)
+    public static class WarmCache {
+        /**
+         * Applies every chain once, so that their results are cached.
+         */
+        @Setup(Level.Trial)
+        public void fill() {
+            for (final InitialTrajectory t : InitialTrajectory.values()) {
+                Function2D f = t.getTrajectory();
+                for (final Operation o : CHAIN) {
+                    f = o.perform(f);
+                }
+            }
+        }
+    }
+
+    private Function2D applyChain() {
+        Function2D f = trajectory.getTrajectory();
+        for (final Operation o : CHAIN) {
+            f = o.perform(f);
+        }
+        return f;
+    }
+}
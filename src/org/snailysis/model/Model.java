@@ -81,11 +81,35 @@ public interface Model {
 
     /**
      * Checks if the snail is colliding with something.
+     * The collisions are computed only once for each position of the snail,
+     * so checking them again before the snail moves or changes its trajectory gives the same result.
      * @return
      *          the type of the collision
      */
     SnailImpact checkCollisions();
 
+    /**
+     * Gets how many times the collisions have been computed since the current level has been selected.
+     * @return
+     *          the number of computations of the collisions
+     */
+    long getCollisionChecks();
+
+    /**
+     * Gets how many times the collisions have been checked without computing them again,
+     * as the snail was still in the same position, since the current level has been selected.
+     * @return
+     *          the number of checks which reused the previous result
+     */
+    long getCollisionHits();
+
+    /**
+     * Gets the total time spent computing the collisions since the current level has been selected.
+     * @return
+     *          the time in nanoseconds
+     */
+    long getCollisionNanos();
+
     /**
      * Method that allow to know if the player reached the end of the level.
      * @return
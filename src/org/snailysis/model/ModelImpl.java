@@ -3,6 +3,7 @@ package org.snailysis.model;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
 
 import org.snailysis.model.entities.snail.InitialTrajectory;
 import org.snailysis.model.entities.snail.Snail;
@@ -10,13 +11,19 @@ import org.snailysis.model.entities.snail.SnailBuilder;
 import org.snailysis.model.levels.Level;
 import org.snailysis.model.collisions.CheckCollisionImpl;
 import org.snailysis.model.collisions.CheckCollisions;
+import org.snailysis.model.collisions.ImpactPredictor;
+import org.snailysis.model.collisions.ImpactPredictorImpl;
 import org.snailysis.model.collisions.SnailImpact;
 import org.snailysis.model.levels.manager.LevelManager;
 import org.snailysis.model.levels.manager.LevelManagerImpl;
+import org.snailysis.model.entities.wall.Wall;
 import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
 
 /**
  * Basic implementation of the Model interface.
+ * Collisions are not computed until the snail gets close to its next predicted impact,
+ * which is computed again whenever the snail changes its trajectory.
+ * The result of the collisions is kept until the snail moves or changes its trajectory.
  * The class is not instantiable, as it is a Singleton.
  */
 public final class ModelImpl implements Model {
@@ -29,9 +36,19 @@ public final class ModelImpl implements Model {
     private final LevelManager customLvlMgr = new LevelManagerImpl();
     private LevelManager defaultLvlMgr = new LevelManagerImpl();
     private CheckCollisions checker = new CheckCollisionImpl();
+    private final ImpactPredictor predictor = new ImpactPredictorImpl();
+    private Optional<Double> nextImpact = Optional.empty();
     private DifficultGame difficulty = DifficultGame.MEDIUM;
     private Optional<Level> level = Optional.empty();
+    // the obstacles of the level, taken once so that the checker computes their geometry only once
+    private Set<Wall> obstacles = Collections.emptySet();
     private Optional<Snail> snail = Optional.empty();
+    // the last collision computed and the x-coordinate of the snail for which it has been computed
+    private Optional<SnailImpact> impact = Optional.empty();
+    private double impactX;
+    private long collisionChecks;
+    private long collisionHits;
+    private long collisionNanos;
 
     /**
      * Gets an univocal instance of the model.
@@ -49,13 +66,22 @@ public final class ModelImpl implements Model {
     public void selectLevel(final Level lvl) {
         checkLevelNotPresent();
         level = Optional.of(lvl);
+        obstacles = lvl.getObstacles();
+        nextImpact = Optional.empty();
+        impact = Optional.empty();
+        collisionChecks = 0;
+        collisionHits = 0;
+        collisionNanos = 0;
     }
 
     @Override
     public void endLevel() {
         checkLevelPresent();
         level = Optional.empty();
+        obstacles = Collections.emptySet();
         checker = new CheckCollisionImpl();
+        nextImpact = Optional.empty();
+        impact = Optional.empty();
     }
 
     @Override
@@ -75,15 +101,55 @@ public final class ModelImpl implements Model {
         this.snail = Optional.of(new SnailBuilder().setInitialTrajectory(trajectory)
                                                    .setDelta(difficulty.getDifficult() * Dimension.SNAIL_DELTA.get())
                                                    .build());
+        this.snail.get().attachObserver(n -> {
+            nextImpact = Optional.empty();
+            impact = Optional.empty();
+        });
+        nextImpact = Optional.empty();
+        impact = Optional.empty();
     }
 
     @Override
     public SnailImpact checkCollisions() {
         checkSnailPresent();
-        return checker.computeCollision(snail.get(),
-                                        level.map(l -> l.getObstacles()).orElse(Collections.emptySet()),
-                                        Dimension.PLANE_WIDTH.get(),
-                                        Dimension.PLANE_HEIGHT.get());
+        // the snail only moves forward, so while it is in the same position it has not moved
+        if (impact.isPresent() && snail.get().getCurrentX() == impactX) {
+            collisionHits++;
+            return impact.get();
+        }
+        final long start = System.nanoTime();
+        impactX = snail.get().getCurrentX();
+        impact = Optional.of(computeCollisions());
+        collisionNanos += System.nanoTime() - start;
+        collisionChecks++;
+        return impact.get();
+    }
+
+    @Override
+    public long getCollisionChecks() {
+        return collisionChecks;
+    }
+
+    @Override
+    public long getCollisionHits() {
+        return collisionHits;
+    }
+
+    @Override
+    public long getCollisionNanos() {
+        return collisionNanos;
+    }
+
+    private SnailImpact computeCollisions() {
+        if (!nextImpact.isPresent()) {
+            nextImpact = Optional.of(predictor.predictImpact(snail.get(), obstacles,
+                                                             Dimension.PLANE_WIDTH.get(), Dimension.PLANE_HEIGHT.get()));
+        }
+        // the collisions are skipped only while the snail cannot reach the impact in the next movement
+        if (snail.get().getCurrentX() + snail.get().getDelta() < nextImpact.get()) {
+            return SnailImpact.NOONE;
+        }
+        return checker.computeCollision(snail.get(), obstacles, Dimension.PLANE_WIDTH.get(), Dimension.PLANE_HEIGHT.get());
     }
 
     private void checkSnailPresent() {
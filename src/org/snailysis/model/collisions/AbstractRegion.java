@@ -1,56 +1,68 @@
 package org.snailysis.model.collisions;
 
-import javafx.scene.shape.Shape;
-import javafx.scene.transform.Rotate;
 /**
  * Abstract class implementing Region.
+ * Collisions are computed with the separating axis theorem: two convex regions do not collide
+ * if and only if their projections on the normal of one of their sides do not overlap.
+ * Regions touching each other collide, and regions are contained even if they touch the border.
  */
 public abstract class AbstractRegion implements Region {
-    /**
-     * Shape represent the region.
-     */
-    private Shape shape;
-    /**
-     * Rotation transformation.
-     */
-    private Rotate rotation;
 
     @Override
     public final boolean collide(final Region r) {
-        return this.shape.getBoundsInLocal().intersects(r.getShape().getBoundsInLocal());
+        return !hasSeparatingSide(this, r) && !hasSeparatingSide(r, this);
     }
     @Override
     public final boolean contains(final Region r) {
-        return this.shape.getBoundsInLocal().contains(r.getShape().getBoundsInLocal());
+        // a convex region is the intersection of the strips between its opposite extremes on the normals of its sides
+        for (int i = 0; i < getVertices(); i++) {
+            final double normalX = normalX(this, i);
+            final double normalY = normalY(this, i);
+            if (minProjection(r, normalX, normalY) < minProjection(this, normalX, normalY)
+                || maxProjection(r, normalX, normalY) > maxProjection(this, normalX, normalY)) {
+                return false;
+            }
+        }
+        return true;
     }
     @Override
     public abstract void rotate(double angle);
-    @Override
-    public final Shape getShape() {
-        return this.shape;
+
+    // checks whether the normal of a side of the region a separates it from the region b
+    private static boolean hasSeparatingSide(final Region a, final Region b) {
+        for (int i = 0; i < a.getVertices(); i++) {
+            final double normalX = normalX(a, i);
+            final double normalY = normalY(a, i);
+            if (maxProjection(a, normalX, normalY) < minProjection(b, normalX, normalY)
+                || maxProjection(b, normalX, normalY) < minProjection(a, normalX, normalY)) {
+                return true;
+            }
+        }
+        return false;
     }
-    /**
-     * Setter for the shape represent the geometric area.
-     * @param shape
-     *          shape that describe region
-     */
-    protected void setShape(final Shape shape) {
-        this.shape = shape;
+
+    // the normal of the side from the vertex i to the next one, which does not need to be normalized
+    private static double normalX(final Region r, final int i) {
+        return r.getVertexY(i) - r.getVertexY((i + 1) % r.getVertices());
     }
-    /**
-     * Getter for rotation transformation.
-     * @return
-     *      rotation applicable of the region
-     */
-    protected Rotate getRotation() {
-        return this.rotation;
+
+    private static double normalY(final Region r, final int i) {
+        return r.getVertexX((i + 1) % r.getVertices()) - r.getVertexX(i);
     }
-    /**
-     * Setter for rotation transformation.
-     * @param rotation
-     *          rotation applicable of the region
-     */
-    protected void setRotation(final Rotate rotation) {
-        this.rotation = rotation;
+
+    private static double minProjection(final Region r, final double axisX, final double axisY) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < r.getVertices(); i++) {
+            min = Math.min(min, r.getVertexX(i) * axisX + r.getVertexY(i) * axisY);
+        }
+        return min;
+    }
+
+    private static double maxProjection(final Region r, final double axisX, final double axisY) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < r.getVertices(); i++) {
+            max = Math.max(max, r.getVertexX(i) * axisX + r.getVertexY(i) * axisY);
+        }
+        return max;
     }
 }
@@ -1,71 +1,158 @@
 package org.snailysis.model.collisions;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Set;
-import java.util.function.UnaryOperator;
 
+import org.apache.commons.lang3.Range;
+import org.snailysis.model.entities.snail.PositionSink;
 import org.snailysis.model.entities.snail.Snail;
 import org.snailysis.model.entities.wall.Wall;
 
 /**
  * Implementation of CheckCollisions interface.
+ * The geometry of the walls is computed only when the set of obstacles given changes, that is once per level,
+ * then each check only goes through the walls near the snail.
+ * The regions are created once and moved at each check.
+ * Besides the position of the snail at each check, the path it followed since the previous check is swept,
+ * so that the snail cannot jump over a wall between two checks however fast it moves.
  */
 public final class CheckCollisionImpl implements CheckCollisions {
     private static final double PLAY_REGION_WIDTH_MODIFIER = 1.2;
-    private final List<Region> regionObstacles = new LinkedList<>();
+    // the relative difference below which the trajectory is considered to pass through the previous position
+    private static final double SAME_TRAJECTORY_TOLERANCE = 1e-9;
     private SnailImpact impact;
-    private Region regionPlayArea;
-    private Region regionSnail;
-    private UnaryOperator<Double> ordinateTransf;
+    private final RectangularRegion regionPlayArea = new RectangularRegion(0.0, 0.0, 0.0, 0.0);
+    private final RectangularRegion regionSnail = new RectangularRegion(0.0, 0.0, 0.0, 0.0);
+    private final RectangularRegion regionWall = new RectangularRegion(0.0, 0.0, 0.0, 0.0);
+    // the obstacles whose geometry has been computed, compared by identity
+    private Set<Wall> obstacles;
+    private ObstacleGeometry geometry;
+    // the first wall the snail could reach at the previous check, from which the next one starts looking
+    private int cursor;
+    // the position of the snail is read once for each check, as primitive values
+    private double snailX;
+    private double snailY;
+    private final PositionSink positionSink = (x, y) -> {
+        snailX = x;
+        snailY = y;
+    };
+    private double playAreaHeight;
+    // the position of the snail at the last check, and the different one before it, from which its path is swept
+    private boolean previous;
+    private double previousX;
+    private double previousY;
+    private boolean origin;
+    private double originX;
+    private double originY;
+    // where the swept path starts, which is the current position if the path is not swept
+    private double pathFromX;
 
     @Override
     public SnailImpact computeCollision(final Snail snail, final Set<Wall> obstacles, final double playAreaWidth, final double playAreaHeight) {
-        ordinateTransf = y -> playAreaHeight - y;
-        computeRegions(snail, obstacles, playAreaWidth, playAreaHeight);
+        if (obstacles != this.obstacles || playAreaHeight != this.playAreaHeight) {
+            this.obstacles = obstacles;
+            this.geometry = new ObstacleGeometry(obstacles, playAreaHeight);
+            this.cursor = 0;
+            this.previous = false;
+            this.origin = false;
+        }
+        this.playAreaHeight = playAreaHeight;
+        snail.getCurrentPosition(positionSink);
+        // checking again the same position sweeps again the same path, so that the result does not change
+        if (!previous || snailX != previousX || snailY != previousY) {
+            origin = previous;
+            originX = previousX;
+            originY = previousY;
+            previous = true;
+            previousX = snailX;
+            previousY = snailY;
+        }
+        pathFromX = hasMovedAlongTrajectory(snail) ? originX : snailX;
+        computeRegions(snail, playAreaWidth, playAreaHeight);
         computeBorderCollision(snail, playAreaWidth);
         if (!impact.equals(SnailImpact.NOONE)) {
             return impact;
         }
-        computeWallCollisions();
+        computeWallCollisions(snail);
         return impact;
     }
     @Override
     public boolean isLevelCompleted() {
        return impact.equals(SnailImpact.END_LEVEL) ? true : false;
     }
-    private void computeRegions(final Snail snail, final Set<Wall> obstacles, final double playAreaWidth, final double playAreaHeight) {
-        regionPlayArea = new RectangularRegion(0.0, 0.0, playAreaWidth + PLAY_REGION_WIDTH_MODIFIER * snail.getWidth(), playAreaHeight);
-        regionSnail = new RectangularRegion(snail.getCurrentX(),
-                                            ordinateTransf.apply(snail.getCurrentY()) - snail.getHeight(),
-                                            snail.getWidth(), 
-                                            snail.getHeight());
+    private void computeRegions(final Snail snail, final double playAreaWidth, final double playAreaHeight) {
+        regionPlayArea.setBounds(0.0, 0.0, playAreaWidth + PLAY_REGION_WIDTH_MODIFIER * snail.getWidth(), playAreaHeight);
+        regionSnail.setBounds(snailX,
+                              overturn(snailY) - snail.getHeight(),
+                              snail.getWidth(),
+                              snail.getHeight());
         regionSnail.rotate(snail.getAngleDeg());
-        obstacles.forEach(o -> {
-            if (ordinateTransf.apply(o.getGapY()) > 0.0  && ordinateTransf.apply(o.gapHeightRange().getMaximum()) > 0.0) {
-                regionObstacles.add(new RectangularRegion(o.gapWidthRange().getMinimum(),
-                                                          0.0,
-                                                          Wall.WALL_WIDTH, 
-                                                          ordinateTransf.apply(o.gapHeightRange().getMaximum())));
-            }
-            if (ordinateTransf.apply(o.getGapY()) < playAreaHeight && ordinateTransf.apply(o.gapHeightRange().getMinimum()) < playAreaHeight) {
-                regionObstacles.add(new RectangularRegion(o.gapWidthRange().getMinimum(),
-                                                         ordinateTransf.apply(o.gapHeightRange().getMinimum()),
-                                                         Wall.WALL_WIDTH, 
-                                                         playAreaHeight - ordinateTransf.apply(o.gapHeightRange().getMinimum())));
-            }
-        });
+    }
+    /*
+     * Broad phase: the rotated snail stays within its diagonal from its position, so a wall cannot be hit
+     * if the snail is farther than that from the wall or from the parts above and below the gap
+     */
+    private boolean canCollide(final int wall, final double reach) {
+        return snailX >= geometry.getMinX(wall) - reach && snailX <= geometry.getMaxX(wall) + reach
+               && (snailY < geometry.getGapMin(wall) + reach || snailY > geometry.getGapMax(wall) - reach);
     }
     private void computeBorderCollision(final Snail snail, final double playAreaWidth) {
         impact = regionPlayArea.contains(regionSnail) ? SnailImpact.NOONE : SnailImpact.PLAYAREA;
-        if (impact.equals(SnailImpact.PLAYAREA) && snail.getCurrentX() >= playAreaWidth) {
+        if (impact.equals(SnailImpact.PLAYAREA) && snailX >= playAreaWidth) {
             impact = SnailImpact.END_LEVEL;
         }
-        if (impact.equals(SnailImpact.PLAYAREA) && snail.getCurrentX() <= snail.getWidth()) {
+        if (impact.equals(SnailImpact.PLAYAREA) && snailX <= snail.getWidth()) {
             impact = SnailImpact.NOONE;
         }
     }
-    private void computeWallCollisions() {
-        impact = regionObstacles.stream().filter(o -> regionSnail.collide(o)).findFirst().isPresent() ? SnailImpact.WALL : SnailImpact.NOONE;
+    /*
+     * The path is swept only if the snail has moved forward along the same trajectory since the previous position,
+     * as after restarting or performing an operation the current trajectory does not describe its path
+     */
+    private boolean hasMovedAlongTrajectory(final Snail snail) {
+        return origin && originX < snailX
+               && Math.abs(snail.getPositionAt(originX) - originY) <= SAME_TRAJECTORY_TOLERANCE * Math.max(1, Math.abs(originY));
+    }
+    // the model's y-axis goes upwards, while the one of the regions goes downwards
+    private double overturn(final double y) {
+        return playAreaHeight - y;
+    }
+    // only the walls within the reach of the snail are checked
+    private void computeWallCollisions(final Snail snail) {
+        final double reach = Math.hypot(snail.getWidth(), snail.getHeight());
+        impact = SnailImpact.NOONE;
+        cursor = geometry.firstReaching(pathFromX - reach, cursor);
+        for (int i = cursor; i < geometry.size() && geometry.getMinX(i) - reach <= snailX; i++) {
+            if ((pathFromX < snailX && sweptWall(snail, i)) || (canCollide(i, reach) && hitsWall(i))) {
+                impact = SnailImpact.WALL;
+                return;
+            }
+        }
+    }
+    /*
+     * Swept phase: the bottom-left corner of the snail, around which it is rotated, always lies on its trajectory,
+     * so the snail hits a wall if its trajectory goes out of the gap while the corner passes through the wall
+     */
+    private boolean sweptWall(final Snail snail, final int wall) {
+        final double from = Math.max(pathFromX, geometry.getMinX(wall));
+        final double to = Math.min(snailX, geometry.getMaxX(wall));
+        if (from > to) {
+            return false;
+        }
+        final Range<Double> path = snail.getRangeOver(from, to);
+        return path.getMinimum() < geometry.getGapMin(wall) || path.getMaximum() > geometry.getGapMax(wall);
+    }
+    private boolean hitsWall(final int wall) {
+        final double width = geometry.getMaxX(wall) - geometry.getMinX(wall);
+        if (geometry.getTopHeight(wall) > 0.0) {
+            regionWall.setBounds(geometry.getMinX(wall), 0.0, width, geometry.getTopHeight(wall));
+            if (regionSnail.collide(regionWall)) {
+                return true;
+            }
+        }
+        if (geometry.getBottomHeight(wall) > 0.0) {
+            regionWall.setBounds(geometry.getMinX(wall), geometry.getBottomY(wall), width, geometry.getBottomHeight(wall));
+            return regionSnail.collide(regionWall);
+        }
+        return false;
     }
 }
@@ -0,0 +1,28 @@
+package org.snailysis.model.collisions;
+
+import java.util.Set;
+
+import org.snailysis.model.entities.snail.Snail;
+import org.snailysis.model.entities.wall.Wall;
+
+/**
+ * Interface that model the prediction of the next impact of the snail, given its current trajectory.
+ */
+public interface ImpactPredictor {
+    /**
+     * Method that compute the x-coordinate of the next possible impact of the snail with walls or play area,
+     * if it keeps following its current trajectory.
+     * The prediction is conservative, so that no impact can happen before the returned x-coordinate.
+     * @param snail
+     *          current snail of the level
+     * @param obstacles
+     *          set that contains walls of the level
+     * @param playAreaWidth
+     *          width of play area
+     * @param playAreaHeight
+     *          height of play area
+     * @return
+     *      the x-coordinate before which collisions can be safely ignored
+     */
+    double predictImpact(Snail snail, Set<Wall> obstacles, double playAreaWidth, double playAreaHeight);
+}
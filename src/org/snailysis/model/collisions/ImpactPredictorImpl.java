@@ -0,0 +1,47 @@
+package org.snailysis.model.collisions;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.snailysis.model.entities.snail.Snail;
+import org.snailysis.model.entities.wall.Wall;
+
+/**
+ * Implementation of ImpactPredictor interface.
+ * The snail is rotated around its bottom-left corner, so whatever its angle it lies inside the square
+ * centered in its position having its diagonal as half side: the prediction checks this square instead of the snail.
+ */
+public final class ImpactPredictorImpl implements ImpactPredictor {
+
+    @Override
+    public double predictImpact(final Snail snail, final Set<Wall> obstacles, final double playAreaWidth, final double playAreaHeight) {
+        final double margin = Math.hypot(snail.getWidth(), snail.getHeight());
+        final double fromX = snail.getCurrentX();
+        final double toX = Math.max(fromX, playAreaWidth - margin);
+        return Stream.concat(Stream.of(computeExit(snail, margin, playAreaHeight - margin, fromX, toX)),
+                             obstacles.stream()
+                                      .filter(o -> o.gapWidthRange().getMaximum() + margin >= fromX)
+                                      .filter(o -> o.gapWidthRange().getMinimum() - margin <= toX)
+                                      .map(o -> computeExit(snail,
+                                                            o.gapHeightRange().getMinimum() + margin,
+                                                            o.gapHeightRange().getMaximum() - margin,
+                                                            Math.max(fromX, o.gapWidthRange().getMinimum() - margin),
+                                                            Math.min(toX, o.gapWidthRange().getMaximum() + margin))))
+                     .filter(Optional::isPresent)
+                     .map(Optional::get)
+                     .min(Double::compare)
+                     .orElse(toX);
+    }
+
+    // finds the first x in [fromX, toX] where the snail's y goes out of [minY, maxY]
+    private Optional<Double> computeExit(final Snail snail, final double minY, final double maxY, final double fromX, final double toX) {
+        final double y = snail.getPositionAt(fromX);
+        if (y < minY || y > maxY) {
+            return Optional.of(fromX);
+        }
+        return Stream.of(minY, maxY)
+                     .flatMap(b -> snail.getXsAt(b, fromX, toX).stream())
+                     .min(Double::compare);
+    }
+}
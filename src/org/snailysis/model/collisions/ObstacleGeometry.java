@@ -0,0 +1,202 @@
+package org.snailysis.model.collisions;
+
+import java.util.Comparator;
+import java.util.Set;
+
+import org.snailysis.model.entities.wall.Wall;
+
+/**
+ * Immutable geometry of the walls of a level, computed once for all the checks of the level.
+ * Each wall takes a fixed number of values in a single array, sorted by the left side of the walls, holding
+ * its horizontal and gap bounds in the coordinates of the model, and the parts above and below its gap
+ * in the coordinates of the regions, whose y-axis goes downwards from the top of the play area.
+ * Being sorted, the walls near a given x-coordinate are found by binary search, or just moving forward
+ * from the ones found before, as the snail moves forward, without going through all of them.
+ */
+public final class ObstacleGeometry {
+
+    private static final int MIN_X = 0;
+    private static final int MAX_X = 1;
+    private static final int GAP_MIN = 2;
+    private static final int GAP_MAX = 3;
+    // the height of the part above the gap, which starts from the top, and the y of the part below it in the regions
+    private static final int TOP_HEIGHT = 4;
+    private static final int BOTTOM_Y = 5;
+    private static final int STRIDE = 6;
+    // beyond this number of walls passed since the previous search, a binary search is faster than moving forward
+    private static final int MAX_CURSOR_STEPS = 8;
+
+    private final double[] walls;
+    private final double playAreaHeight;
+    // the widest wall, which bounds how far on the left a wall reaching a given x-coordinate can start
+    private final double maxWidth;
+
+    /**
+     * Computes the geometry of the walls of a level.
+     *
+     * @param obstacles
+     *          the walls of the level
+     * @param playAreaHeight
+     *          the height of the play area
+     */
+    public ObstacleGeometry(final Set<Wall> obstacles, final double playAreaHeight) {
+        final Wall[] sorted = obstacles.stream()
+                                       .sorted(Comparator.comparingDouble(o -> o.gapWidthRange().getMinimum()))
+                                       .toArray(Wall[]::new);
+        this.walls = new double[sorted.length * STRIDE];
+        this.playAreaHeight = playAreaHeight;
+        double width = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            final int base = i * STRIDE;
+            walls[base + MIN_X] = sorted[i].gapWidthRange().getMinimum();
+            walls[base + MAX_X] = sorted[i].gapWidthRange().getMaximum();
+            walls[base + GAP_MIN] = sorted[i].gapHeightRange().getMinimum();
+            walls[base + GAP_MAX] = sorted[i].gapHeightRange().getMaximum();
+            walls[base + TOP_HEIGHT] = playAreaHeight - walls[base + GAP_MAX];
+            walls[base + BOTTOM_Y] = playAreaHeight - walls[base + GAP_MIN];
+            width = Math.max(width, walls[base + MAX_X] - walls[base + MIN_X]);
+        }
+        this.maxWidth = width;
+    }
+
+    /**
+     * Gets the number of walls.
+     *
+     * @return
+     *          the number of walls
+     */
+    public int size() {
+        return walls.length / STRIDE;
+    }
+
+    /**
+     * Finds the first wall that can reach a given x-coordinate: walls before it are entirely on its left.
+     *
+     * @param x
+     *          the x-coordinate
+     * @return
+     *          the index of the wall, or the number of walls if every wall is on the left of the x-coordinate
+     */
+    public int firstReaching(final double x) {
+        final double fromMinX = x - maxWidth;
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (getMinX(middle) < fromMinX) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first wall that can reach a given x-coordinate, moving forward from the wall found for a previous one.
+     * When the x-coordinate has moved backwards or too far forward, it falls back to {@link #firstReaching(double)}.
+     *
+     * @param x
+     *          the x-coordinate
+     * @param cursor
+     *          the wall found for a previous x-coordinate
+     * @return
+     *          the index of the wall, or the number of walls if every wall is on the left of the x-coordinate
+     */
+    public int firstReaching(final double x, final int cursor) {
+        final double fromMinX = x - maxWidth;
+        if (cursor < 0 || cursor > size() || (cursor > 0 && getMinX(cursor - 1) >= fromMinX)) {
+            return firstReaching(x);
+        }
+        for (int wall = cursor; wall < Math.min(size(), cursor + MAX_CURSOR_STEPS); wall++) {
+            if (getMinX(wall) >= fromMinX) {
+                return wall;
+            }
+        }
+        return cursor + MAX_CURSOR_STEPS >= size() ? size() : firstReaching(x);
+    }
+
+    /**
+     * Gets the left side of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the x-coordinate of the left side of the wall
+     */
+    public double getMinX(final int wall) {
+        return walls[wall * STRIDE + MIN_X];
+    }
+
+    /**
+     * Gets the right side of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the x-coordinate of the right side of the wall
+     */
+    public double getMaxX(final int wall) {
+        return walls[wall * STRIDE + MAX_X];
+    }
+
+    /**
+     * Gets the bottom of the gap of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the y-coordinate of the bottom of the gap of the wall
+     */
+    public double getGapMin(final int wall) {
+        return walls[wall * STRIDE + GAP_MIN];
+    }
+
+    /**
+     * Gets the top of the gap of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the y-coordinate of the top of the gap of the wall
+     */
+    public double getGapMax(final int wall) {
+        return walls[wall * STRIDE + GAP_MAX];
+    }
+
+    /**
+     * Gets the height of the region above the gap of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the height of the part of the wall above its gap, which is not positive if the gap reaches the top
+     */
+    public double getTopHeight(final int wall) {
+        return walls[wall * STRIDE + TOP_HEIGHT];
+    }
+
+    /**
+     * Gets where the region below the gap of a wall starts.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the y-coordinate in the regions of the part of the wall below its gap
+     */
+    public double getBottomY(final int wall) {
+        return walls[wall * STRIDE + BOTTOM_Y];
+    }
+
+    /**
+     * Gets the height of the region below the gap of a wall.
+     *
+     * @param wall
+     *          the index of the wall
+     * @return
+     *          the height of the part of the wall below its gap, which is not positive if the gap reaches the bottom
+     */
+    public double getBottomHeight(final int wall) {
+        return playAreaHeight - getBottomY(wall);
+    }
+}
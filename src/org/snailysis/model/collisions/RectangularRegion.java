@@ -1,20 +1,27 @@
 package org.snailysis.model.collisions;
 
-import javafx.scene.shape.Rectangle;
-import javafx.scene.transform.Rotate;
-
 /**
  * Class extending AbstractRegion that represent a region with rectangular form.
+ * The region can be rotated around its bottom-left corner, becoming an oriented rectangle.
+ * As its vertices are kept in an array of primitive values, the region can be moved and rotated again
+ * without creating new objects.
  */
 public final class RectangularRegion extends AbstractRegion {
 
+    private static final int VERTICES = 4;
+
+    private final double[] xs = new double[VERTICES];
+    private final double[] ys = new double[VERTICES];
+    private double pivotX;
+    private double pivotY;
+
     /**
      * Basic constructor for a RectangularRegion.
      *
      * @param x
-     *      x-coordinate of region's center
+     *      x-coordinate of region's top-left corner
      * @param y
-     *      x-coordinate of region's center
+     *      y-coordinate of region's top-left corner
      * @param width
      *      width of the region
      * @param height
@@ -22,15 +29,60 @@ public final class RectangularRegion extends AbstractRegion {
      */
     public RectangularRegion(final double x, final double y, final double width, final double height) {
         super();
-        setShape(new Rectangle(x, y, width, height));
-        setRotation(new Rotate());
-        getRotation().setPivotX(x);
-        getRotation().setPivotY(y + height);
+        setBounds(x, y, width, height);
     }
+
+    /**
+     * Moves the region, discarding its rotation.
+     *
+     * @param x
+     *      x-coordinate of region's top-left corner
+     * @param y
+     *      y-coordinate of region's top-left corner
+     * @param width
+     *      width of the region
+     * @param height
+     *      height of the region
+     */
+    public void setBounds(final double x, final double y, final double width, final double height) {
+        // the vertices go clockwise on the screen from the top-left one
+        xs[0] = x;
+        ys[0] = y;
+        xs[1] = x + width;
+        ys[1] = y;
+        xs[2] = x + width;
+        ys[2] = y + height;
+        xs[3] = x;
+        ys[3] = y + height;
+        pivotX = x;
+        pivotY = y + height;
+    }
+
     @Override
     public void rotate(final double angle) {
-        getRotation().setAngle(-angle);
-        getShape().getTransforms().add(super.getRotation());
+        // the y-axis goes downwards, so the region is rotated by -angle to turn it counterclockwise on the screen
+        final double cos = Math.cos(Math.toRadians(-angle));
+        final double sin = Math.sin(Math.toRadians(-angle));
+        for (int i = 0; i < VERTICES; i++) {
+            final double dx = xs[i] - pivotX;
+            final double dy = ys[i] - pivotY;
+            xs[i] = pivotX + dx * cos - dy * sin;
+            ys[i] = pivotY + dx * sin + dy * cos;
+        }
+    }
+
+    @Override
+    public int getVertices() {
+        return VERTICES;
     }
 
+    @Override
+    public double getVertexX(final int vertex) {
+        return xs[vertex];
+    }
+
+    @Override
+    public double getVertexY(final int vertex) {
+        return ys[vertex];
+    }
 }
@@ -1,18 +1,33 @@
 package org.snailysis.model.collisions;
 
-import javafx.scene.shape.Shape;
-
 /**
  * Interface describing a region in the game.
  * A region is a geometric area that describe the hitbox of any entity in the game.
+ * Regions are convex polygons, described by their vertices in clockwise or counterclockwise order.
  */
 public interface Region {
     /**
-     * Getter of the region Shape.
+     * Getter of the number of vertices of the region.
+     * @return
+     *      the number of vertices
+     */
+    int getVertices();
+    /**
+     * Getter of the x-coordinate of a vertex of the region.
+     * @param vertex
+     *      the index of the vertex
+     * @return
+     *      the x-coordinate of the vertex
+     */
+    double getVertexX(int vertex);
+    /**
+     * Getter of the y-coordinate of a vertex of the region.
+     * @param vertex
+     *      the index of the vertex
      * @return
-     *      the region shape
+     *      the y-coordinate of the vertex
      */
-    Shape getShape();
+    double getVertexY(int vertex);
     /**
      * Check collision between regions.
      * @param r
@@ -1,5 +1,12 @@
 package org.snailysis.model.entities.function;
 
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.Range;
 import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
 
 /**
@@ -15,6 +22,17 @@ public abstract class AbstractFunction2D implements Function2D {
      * Zero value's exception message.
      */
     protected static final String ZERO_TEXT = "Zero Values are not accepted";
+    /**
+     * Wrong number of points' exception message.
+     */
+    protected static final String POINTS_TEXT = "Incorrect Number of Points";
+    /**
+     * Wrong interval's exception message.
+     */
+    protected static final String INTERVAL_TEXT = "Incorrect Interval";
+
+    // lazily computed as functions are immutable, concurrent computations would just give equal derivatives
+    private transient Function2D derivative;
 
     @Override
     public final Function2D identity() {
@@ -28,7 +46,7 @@ public abstract class AbstractFunction2D implements Function2D {
 
     @Override
     public final Function2D translateOnX(final double constant) {
-        return this.compose(new BasicPolynomial2D(1, 1).add(new Constant(constant)));
+        return this.compose(this.monomial(1, 1).add(new Constant(constant)));
     }
 
     @Override
@@ -50,23 +68,140 @@ public abstract class AbstractFunction2D implements Function2D {
     @Override
     public final Function2D dilateOnX(final double coefficient) {
         ExceptionUtilities.checkNotZero(coefficient, ZERO_TEXT);
-        return this.compose(new BasicPolynomial2D(coefficient, 1));
+        return this.compose(this.monomial(coefficient, 1));
     }
 
     @Override
     public final Function2D powerOnY(final int power) {
         ExceptionUtilities.checkPositive(power, NOT_POSITIVE_TEXT);
-        return new BasicPolynomial2D(1, power).compose(this);
+        return this.monomial(1, power).compose(this);
     }
 
     @Override
     public final Function2D powerOnX(final int power) {
         ExceptionUtilities.checkPositive(power, NOT_POSITIVE_TEXT);
-        return this.compose(new BasicPolynomial2D(1, power));
+        return this.compose(this.monomial(1, power));
     }
 
     @Override
     public final Function2D getCopy() {
-        return this.add(new Constant(0));
+        return this; // the function is immutable
+    }
+
+    @Override
+    public final double slopeAt(final double x) {
+        return this.getDerivative().evaluateAt(x);
+    }
+
+    @Override
+    public final List<Double> solve(final double value, final double from, final double to) {
+        ExceptionUtilities.throwExceptionIf(from > to, new IllegalArgumentException(INTERVAL_TEXT));
+        return roots(this.translateOnY(-value), from, to);
     }
+
+    @Override
+    public final Range<Double> rangeOver(final double from, final double to) {
+        ExceptionUtilities.throwExceptionIf(from > to, new IllegalArgumentException(INTERVAL_TEXT));
+        // the minimum and the maximum are either in the bounds or in the points where the derivative is zero
+        final DoubleSummaryStatistics values = Stream.concat(Stream.of(from, to), roots(this.getDerivative(), from, to).stream())
+                                                     .mapToDouble(this::evaluateAt)
+                                                     .summaryStatistics();
+        return Range.between(values.getMin(), values.getMax());
+    }
+
+    /**
+     * Checks that n points can be read from and written to the given arrays.
+     * 
+     * @param xs
+     *          the array of the points
+     * @param out
+     *          the array of the values
+     * @param n
+     *          the number of points
+     * @throws
+     *          IllegalArgumentException if n is negative or greater than the length of one of the arrays
+     */
+    protected static void checkPoints(final double[] xs, final double[] out, final int n) {
+        ExceptionUtilities.throwExceptionIf(n < 0 || n > xs.length || n > out.length, new IllegalArgumentException(POINTS_TEXT));
+    }
+
+    // gets the derivative, computing it only the first time
+    private Function2D getDerivative() {
+        if (derivative == null) {
+            derivative = this.differentiate();
+        }
+        return derivative;
+    }
+
+    /*
+     * Finds the roots of g(x) in [from, to]: the roots of g'(x) split the interval in monotonic pieces,
+     * each one containing at most a root that is found by bisection.
+     * The recursion ends as each derivative has a lower grade, until a constant is reached.
+     */
+    private static List<Double> roots(final Function2D gx, final double from, final double to) {
+        final List<Double> result = new ArrayList<>();
+        if (Constant.class.isInstance(gx)) {
+            return result;
+        }
+        final List<Double> bounds = new ArrayList<>();
+        bounds.add(from);
+        bounds.addAll(roots(derivativeOf(gx), from, to));
+        bounds.add(to);
+        for (int i = 0; i < bounds.size() - 1; i++) {
+            bisect(gx, bounds.get(i), bounds.get(i + 1))
+                    .filter(x -> result.isEmpty() || result.get(result.size() - 1) < x)
+                    .ifPresent(result::add);
+        }
+        if (gx.evaluateAt(to) == 0 && (result.isEmpty() || result.get(result.size() - 1) < to)) {
+            result.add(to);
+        }
+        return result;
+    }
+
+    // gets the derivative of a function, using the cached one when available
+    private static Function2D derivativeOf(final Function2D gx) {
+        return gx instanceof AbstractFunction2D ? ((AbstractFunction2D) gx).getDerivative() : gx.differentiate();
+    }
+
+    // finds the root of a monotonic function in [from, to), halving the interval until the double precision is reached
+    private static Optional<Double> bisect(final Function2D gx, final double from, final double to) {
+        double low = from;
+        double high = to;
+        final double lowValue = gx.evaluateAt(low);
+        final double highValue = gx.evaluateAt(high);
+        if (lowValue == 0) {
+            return Optional.of(low);
+        } else if (highValue == 0 || Math.signum(lowValue) == Math.signum(highValue)) {
+            return Optional.empty(); // a root in the upper bound belongs to the next interval
+        }
+        double middle = low + (high - low) / 2;
+        while (middle > low && middle < high) {
+            final double middleValue = gx.evaluateAt(middle);
+            if (middleValue == 0) {
+                return Optional.of(middle);
+            } else if (Math.signum(middleValue) == Math.signum(lowValue)) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+            middle = low + (high - low) / 2;
+        }
+        return Optional.of(high);
+    }
+
+    /**
+     * Creates the term ax^b using the same representation of this function,
+     * so that the two can be combined together.
+     * 
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @return
+     *          the term created
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    protected abstract Polynomial2D monomial(double coefficient, int grade);
 }
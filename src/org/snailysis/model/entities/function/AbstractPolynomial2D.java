@@ -1,12 +1,10 @@
 package org.snailysis.model.entities.function;
 
-import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
 
-import org.apache.commons.math3.fraction.Fraction;
-import org.jscience.mathematics.function.Polynomial;
+import org.apache.commons.math3.fraction.BigFraction;
 import org.jscience.mathematics.function.Variable;
 import org.jscience.mathematics.number.Rational;
 
@@ -20,41 +18,108 @@ public abstract class AbstractPolynomial2D extends AbstractFunction2D implements
      */
     protected static final Variable<Rational> VARIABLE = new Variable.Local<>("x");
 
+    // the greatest denominator used to show double precision coefficients as fractions
+    private static final int MAX_DENOMINATOR = Integer.MAX_VALUE;
+
     @Override
     public final Polynomial2D add(final double coefficient, final int grade) {
-        return (Polynomial2D) new BasicPolynomial2D(coefficient, grade).add(this);
+        return (Polynomial2D) this.monomial(coefficient, grade).add(this);
     }
 
     @Override
     public final Polynomial2D multiply(final double coefficient, final int grade) {
-        return (Polynomial2D) new BasicPolynomial2D(coefficient, grade).multiply(this);
+        return (Polynomial2D) this.monomial(coefficient, grade).multiply(this);
+    }
+
+    // as the polynomial is immutable its text representation can be computed only once
+    private transient String text;
+
+    @Override
+    public final String toString() {
+        if (text == null) {
+            text = textRepresentation();
+        }
+        return text;
     }
 
     /**
-     * Protected utility function that returns a text representation of the polynomial function.
-     * 
-     * @param polynomial
-     *          the polynomial function
+     * Computes the text representation of the polynomial, which is then cached by {@link #toString()}.
+     *
+     * @return
+     *          the text representation
+     */
+    protected abstract String textRepresentation();
+
+    /**
+     * Protected utility function that returns a text representation of a polynomial function
+     * given its coefficients, in the same format of {@link #termsToString(int, IntUnaryOperator, IntFunction)}.
+     *
+     * @param coefficients
+     *          the coefficients of the polynomial, where the i-th element is the coefficient of x^i
+     * @return
+     *          the text representation
+     */
+    protected static String coefficientsToString(final double[] coefficients) {
+        return termsToString(coefficients.length - 1, i -> (int) Math.signum(coefficients[i]),
+            i -> new BigFraction(Math.abs(coefficients[i]), MAX_DENOMINATOR).toString().replace(" ", ""));
+    }
+
+    /**
+     * Protected utility function that returns a text representation of a polynomial function
+     * given the sign and the absolute value text of each coefficient.
+     * Terms are shown from the highest grade, omitting the ones with zero coefficient
+     * and the coefficients equal to one, as in "x³ - 1/2x + 3"; the null polynomial is shown as "0".
+     *
+     * @param grade
+     *          the grade of the polynomial
+     * @param signum
+     *          gives the sign of the coefficient of x^i: -1, 0 or 1
+     * @param absoluteText
+     *          gives the text representation of the absolute value of the coefficient of x^i
      * @return
      *          the text representation
      */
-    protected static String polynomialToString(final Polynomial<Rational> polynomial) {
-        /*
-         * First removes terms with 0 coefficient:
-         * - if empty means f(x) = 0
-         * - otherwise replaces "1/1", "/1" and "[]" removing spaces when necessary
-         */
-        return Optional.of(new LinkedList<>(Arrays.asList(polynomial.toString().split(" [+] "))))
-                       .map(t -> t.removeIf(s -> s.contains("[0/")) ? t : t)
-                       .filter(t -> !t.isEmpty())
-                       .map(t -> t.stream()
-                                  .map(s -> s.replace("1/1]x", "x"))
-                                  .map(s -> s.replace("/1]", ""))
-                                  .map(s -> s.replace("]", ""))
-                                  .map(s -> s.replace("[", ""))
-                                  .collect(Collectors.joining(" + "))
-                                  .replace("+ -", "- "))
-                       .orElse("0");
+    protected static String termsToString(final int grade, final IntUnaryOperator signum, final IntFunction<String> absoluteText) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = grade; i >= 0; i--) {
+            final int sign = signum.applyAsInt(i);
+            if (sign != 0) {
+                final String coefficient = absoluteText.apply(i);
+                if (text.length() > 0) {
+                    text.append(sign < 0 ? " - " : " + ");
+                } else if (sign < 0) {
+                    text.append('-');
+                }
+                text.append(i > 0 && "1".equals(coefficient) ? "" : coefficient).append(variableToString(i));
+            }
+        }
+        return text.length() > 0 ? text.toString() : "0";
+    }
+
+    // the text representation of x^grade, using superscripts for squares and cubes as jScience does
+    private static String variableToString(final int grade) {
+        switch (grade) {
+        case 0:
+            return "";
+        case 1:
+            return "x";
+        case 2:
+            return "x²";
+        case 3:
+            return "x³";
+        default:
+            return "x" + grade;
+        }
+    }
+
+    /**
+     * Replaces the polynomial with its compact encoding when it is serialized (see {@link FunctionCodec}).
+     *
+     * @return
+     *          the serialized form of the polynomial
+     */
+    protected final Object writeReplace() {
+        return new FunctionCodec.SerializedFunction(this);
     }
 
     /**
@@ -66,6 +131,6 @@ public abstract class AbstractPolynomial2D extends AbstractFunction2D implements
      *          the fractional value
      */
     protected static Rational getRationalFromDouble(final double d) {
-        return Optional.of(new Fraction(d)).map(f -> Rational.valueOf(f.getNumerator(), f.getDenominator())).get();
+        return Optional.of(Fractions.valueOf(d)).map(f -> Rational.valueOf(f.getNumerator(), f.getDenominator())).get();
     }
 }
@@ -1,16 +1,24 @@
 package org.snailysis.model.entities.function;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
 import org.jscience.mathematics.function.Polynomial;
 import org.jscience.mathematics.function.Term;
+import org.jscience.mathematics.number.LargeInteger;
 import org.jscience.mathematics.number.Rational;
 import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
 
 /**
  * Basic implementation of the interface Polynomial2D.
+ * Operations are performed with exact rational arithmetic, while evaluations are performed
+ * on a double precision copy of the polynomial, created the first time the function is evaluated.
+ * Each polynomial also keeps its normalized coefficients and their hash, so that equality checks
+ * never need to compare text representations; instances created by this package are canonical
+ * (see {@link Functions#canonical(Function2D)}), so equal polynomials are usually the same object.
  */
 public final class BasicPolynomial2D extends AbstractPolynomial2D implements Serializable {
 
@@ -18,6 +26,11 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
     private static final String CLASSES_TEXT = "Incorrect Function Class";
 
     private final Polynomial<Rational> polynomial;
+    // the i-th element is the coefficient of x^i, the last one is never zero
+    private final Rational[] coefficients;
+    private final int hash;
+    // as the polynomial is immutable its double precision copy can be computed only once
+    private transient DoublePolynomial2D evaluator;
 
     /**
      * Package-private constructor to create Polynomial2D representing f(x) = ax^b.
@@ -37,12 +50,16 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
         this.polynomial = Polynomial.valueOf(Rational.ONE, VARIABLE)
                                     .pow(grade)
                                     .times(getRationalFromDouble(coefficient));
+        this.coefficients = normalize(this.polynomial);
+        this.hash = Arrays.hashCode(this.coefficients);
     }
 
     // private copy constructor
-    private BasicPolynomial2D(final Polynomial<Rational> polynomial) {
+    private BasicPolynomial2D(final Polynomial<Rational> polynomial, final Rational[] coefficients) {
         super();
         this.polynomial = polynomial.copy();
+        this.coefficients = coefficients;
+        this.hash = Arrays.hashCode(coefficients);
     }
 
     @Override
@@ -52,9 +69,15 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
                            .filter(t -> t != 0)
                            .map(BasicPolynomial2D::getRationalFromDouble)
                            .map(c -> performAndReturn(p -> p.plus(c)))
-                           .orElse(new BasicPolynomial2D(polynomial.copy()));
+                           .orElse(Functions.canonical(this));
         } else if (BasicPolynomial2D.class.isInstance(gx)) {
             return performAndReturn(p -> p.plus(((BasicPolynomial2D) gx).getPolynomialCopy()));
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return this.add(((RationalPolynomial2D) gx).toBasic());
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return this.add(((SparsePolynomial2D) gx).toBasic());
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return gx.add(this);
         } else {
             throw new IllegalArgumentException(CLASSES_TEXT);
         }
@@ -70,6 +93,12 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
                            .orElse(new Constant(0));
         } else if (BasicPolynomial2D.class.isInstance(gx)) {
             return performAndReturn(p -> p.times(((BasicPolynomial2D) gx).getPolynomialCopy()));
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return this.multiply(((RationalPolynomial2D) gx).toBasic());
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return this.multiply(((SparsePolynomial2D) gx).toBasic());
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return gx.multiply(this);
         } else {
             throw new IllegalArgumentException(CLASSES_TEXT);
         }
@@ -81,6 +110,12 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
             return new Constant(this.evaluateAt(gx.evaluateAt(0))); // f(k) = h
         } else if (BasicPolynomial2D.class.isInstance(gx)) {
             return performAndReturn(p -> p.compose(((BasicPolynomial2D) gx).getPolynomialCopy()));
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return this.compose(((RationalPolynomial2D) gx).toBasic());
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return this.compose(((SparsePolynomial2D) gx).toBasic());
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return toPrimitive().compose(gx);
         } else {
             throw new IllegalArgumentException(CLASSES_TEXT);
         }
@@ -98,31 +133,38 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
 
     @Override
     public double evaluateAt(final double x) {
-        return polynomial.evaluate(getRationalFromDouble(x)).doubleValue();
+        return toPrimitive().evaluateAt(x);
     }
 
     @Override
-    public String toString() {
-        return polynomialToString(polynomial);
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        toPrimitive().evaluateAt(xs, out, n);
+    }
+
+    @Override
+    protected String textRepresentation() {
+        return termsToString(coefficients.length - 1, i -> signum(coefficients[i]), i -> {
+            final Rational coefficient = coefficients[i].abs();
+            return coefficient.getDivisor().equals(LargeInteger.ONE) ? coefficient.getDividend().toString() : coefficient.toString();
+        });
     }
 
-    /* AUTO-GENERATED by Eclipse */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((polynomial == null) ? 0 : polynomial.hashCode());
-        return result;
+        return hash;
     }
 
     @Override
     public boolean equals(final Object obj) {
-        // I compare the strings representations as the polynomial.equals() method doesn't work properly
-        return Optional.ofNullable(obj)
-                       .filter(o -> getClass().equals(o.getClass()))
-                       .map(o -> (BasicPolynomial2D) o)
-                       .filter(o -> this.toString().equals(o.toString()))
-                       .isPresent();
+        // canonical instances are compared by reference, the normalized coefficients are compared otherwise
+        return this == obj || (obj instanceof BasicPolynomial2D
+                               && ((BasicPolynomial2D) obj).hash == hash
+                               && Arrays.equals(((BasicPolynomial2D) obj).coefficients, coefficients));
+    }
+
+    @Override
+    protected Polynomial2D monomial(final double coefficient, final int grade) {
+        return new BasicPolynomial2D(coefficient, grade);
     }
 
     /**
@@ -135,13 +177,83 @@ public final class BasicPolynomial2D extends AbstractPolynomial2D implements Ser
         return polynomial.copy();
     }
 
-    // performs an operation over the Polynomial<Rational> function and return the result
+    /**
+     * Package-private method to get the same function with double precision coefficients.
+     * The conversion is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the function as a DoublePolynomial2D
+     */
+    DoublePolynomial2D toPrimitive() {
+        if (evaluator == null) {
+            // a BasicPolynomial2D is never constant, so neither its copy is
+            evaluator = (DoublePolynomial2D) DoublePolynomial2D.valueOf(Arrays.stream(coefficients)
+                                                                             .mapToDouble(Rational::doubleValue)
+                                                                             .toArray());
+        }
+        return evaluator;
+    }
+
+    // package-private accessor used by the codec, the array is not copied so it must not be changed
+    Rational[] getCoefficients() {
+        return coefficients;
+    }
+
+    /**
+     * Package-private factory that creates the polynomial having the given coefficients.
+     *
+     * @param coefficients
+     *          the coefficients of the polynomial, where the i-th element is the coefficient of x^i
+     *          and the last one is not zero
+     * @return
+     *          the canonical BasicPolynomial2D
+     */
+    static BasicPolynomial2D valueOf(final Rational[] coefficients) {
+        final Polynomial<Rational> polynomial = IntStream.range(0, coefficients.length)
+                                                         .filter(i -> !coefficients[i].equals(Rational.ZERO))
+                                                         .mapToObj(i -> Polynomial.valueOf(coefficients[i], Term.valueOf(VARIABLE, i)))
+                                                         .reduce(Polynomial::plus)
+                                                         .get();
+        return (BasicPolynomial2D) Functions.canonical(new BasicPolynomial2D(polynomial, normalize(polynomial)));
+    }
+
+    /*
+     * performs an operation over the Polynomial<Rational> function and return the canonical result,
+     * which goes back to a RationalPolynomial2D if its coefficients fit in long values
+     */
     private Function2D performAndReturn(final UnaryOperator<Polynomial<Rational>> operator) {
         final Polynomial<Rational> result = operator.apply(polynomial.copy());
-        if (result.getVariables().isEmpty()) {
-            return new Constant(result.getCoefficient(Term.ONE).doubleValue());
+        final Rational[] resultCoefficients = normalize(result);
+        if (resultCoefficients.length <= 1) {
+            return new Constant(resultCoefficients.length == 0 ? 0 : resultCoefficients[0].doubleValue());
+        } else if (Arrays.stream(resultCoefficients).allMatch(BasicPolynomial2D::fitsInLong)) {
+            final long[] numerators = Arrays.stream(resultCoefficients).mapToLong(c -> c.getDividend().longValue()).toArray();
+            final long[] denominators = Arrays.stream(resultCoefficients).mapToLong(c -> c.getDivisor().longValue()).toArray();
+            return RationalPolynomial2D.valueOf(numerators, denominators);
         } else {
-            return new BasicPolynomial2D(result);
+            return Functions.canonical(new BasicPolynomial2D(result, resultCoefficients));
+        }
+    }
+
+    // checks whether both numerator and denominator of the reduced coefficient are long values, Long.MIN_VALUE excluded
+    private static boolean fitsInLong(final Rational coefficient) {
+        return coefficient.getDividend().bitLength() < Long.SIZE && coefficient.getDivisor().bitLength() < Long.SIZE
+               && coefficient.getDividend().longValue() != Long.MIN_VALUE;
+    }
+
+    private static int signum(final Rational coefficient) {
+        return coefficient.isZero() ? 0 : coefficient.isNegative() ? -1 : 1;
+    }
+
+    // gets the coefficients of the polynomial, where the i-th element is the coefficient of x^i, without highest zeros
+    private static Rational[] normalize(final Polynomial<Rational> polynomial) {
+        final Rational[] result = new Rational[polynomial.getOrder(VARIABLE) + 1];
+        Arrays.fill(result, Rational.ZERO);
+        polynomial.getTerms().forEach(t -> result[t.getPower(VARIABLE)] = polynomial.getCoefficient(t));
+        int length = result.length;
+        while (length > 0 && result[length - 1].equals(Rational.ZERO)) {
+            length--;
         }
+        return length == result.length ? result : Arrays.copyOf(result, length);
     }
 }
@@ -1,9 +1,9 @@
 package org.snailysis.model.entities.function;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Optional;
 
-import org.apache.commons.math3.fraction.Fraction;
 
 /**
  * Manages a constant function in the real field.
@@ -19,7 +19,7 @@ public final class Constant extends AbstractPolynomial2D implements Serializable
      */
     Constant(final double value) {
         super();
-        this.value = value;
+        this.value = value + 0.0; // -0.0 becomes 0.0, so that equal constants have the same hash code
     }
 
     @Override
@@ -56,7 +56,7 @@ public final class Constant extends AbstractPolynomial2D implements Serializable
          * - f(x) = 0 -> Sf(x)dx = 0
          * - f(x) = k -> Sf(x)dx = kx
          */
-        return value == 0 ? new Constant(0) : new BasicPolynomial2D(value, 1);
+        return value == 0 ? new Constant(0) : new RationalPolynomial2D(value, 1);
     }
 
     @Override
@@ -65,8 +65,19 @@ public final class Constant extends AbstractPolynomial2D implements Serializable
     }
 
     @Override
-    public String toString() {
-        return new Fraction(value).toString().replace(" ", "");
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        checkPoints(xs, out, n);
+        Arrays.fill(out, 0, n, value);
+    }
+
+    @Override
+    protected String textRepresentation() {
+        return Fractions.valueOf(value).toString().replace(" ", "");
+    }
+
+    @Override
+    protected Polynomial2D monomial(final double coefficient, final int grade) {
+        return RationalPolynomial2D.valueOf(coefficient, grade);
     }
 
     /* AUTO-GENERATED by Eclipse */
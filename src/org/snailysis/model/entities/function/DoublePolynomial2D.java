@@ -0,0 +1,250 @@
+package org.snailysis.model.entities.function;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
+
+/**
+ * Implementation of the interface Polynomial2D with double precision coefficients.
+ * Coefficients are stored in a dense array and the function is evaluated with Horner's rule,
+ * trading the exact arithmetic of BasicPolynomial2D for a much faster evaluation.
+ * Batch evaluations interleave the Horner's rules of several points, so that they are bound by the throughput
+ * of the processor rather than by the latency of each multiplication and addition.
+ * Constant results are returned as Constant functions, exactly as BasicPolynomial2D does,
+ * while combining this function with an exact polynomial gives a result with double precision coefficients.
+ */
+public final class DoublePolynomial2D extends AbstractPolynomial2D implements Serializable {
+
+    private static final long serialVersionUID = 4410329528367193047L;
+    private static final String CLASSES_TEXT = "Incorrect Function Class";
+
+    // the i-th element is the coefficient of x^i, the last one is never zero
+    private final double[] coefficients;
+
+    /**
+     * Package-private constructor to create Polynomial2D representing f(x) = ax^b.
+     *
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    DoublePolynomial2D(final double coefficient, final int grade) {
+        super();
+        ExceptionUtilities.checkNotZero(coefficient, ZERO_TEXT);
+        ExceptionUtilities.checkPositive(grade, NOT_POSITIVE_TEXT);
+        this.coefficients = new double[grade + 1];
+        this.coefficients[grade] = coefficient;
+    }
+
+    // private constructor, the array must be already trimmed and it is not copied
+    private DoublePolynomial2D(final double[] coefficients) {
+        super();
+        this.coefficients = coefficients;
+    }
+
+    @Override
+    public Function2D add(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            return Optional.of(gx.evaluateAt(0))
+                           .filter(t -> t != 0)
+                           .map(c -> {
+                               final double[] result = coefficients.clone();
+                               result[0] += c;
+                               return valueOf(result);
+                           })
+                           .orElse(this);
+        } else if (isPolynomial(gx)) {
+            final double[] other = coefficientsOf(gx);
+            final double[] result = Arrays.copyOf(coefficients, Math.max(coefficients.length, other.length));
+            for (int i = 0; i < other.length; i++) {
+                result[i] += other[i];
+            }
+            return valueOf(result);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D multiply(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            return Optional.of(gx.evaluateAt(0))
+                           .filter(t -> t != 0)
+                           .map(k -> valueOf(Arrays.stream(coefficients).map(c -> c * k).toArray()))
+                           .orElse(new Constant(0));
+        } else if (isPolynomial(gx)) {
+            return valueOf(times(coefficients, coefficientsOf(gx)));
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D compose(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            return new Constant(this.evaluateAt(gx.evaluateAt(0))); // f(k) = h
+        } else if (isPolynomial(gx)) {
+            // Horner's rule over polynomials: f(g) = (...(an * g + an-1) * g + ...) * g + a0
+            final double[] inner = coefficientsOf(gx);
+            double[] result = { coefficients[coefficients.length - 1] };
+            for (int i = coefficients.length - 2; i >= 0; i--) {
+                result = times(result, inner);
+                result[0] += coefficients[i];
+            }
+            return valueOf(result);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D differentiate() {
+        final double[] result = new double[coefficients.length - 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coefficients[i + 1] * (i + 1);
+        }
+        return valueOf(result);
+    }
+
+    @Override
+    public Function2D integrate() {
+        final double[] result = new double[coefficients.length + 1];
+        for (int i = 0; i < coefficients.length; i++) {
+            result[i + 1] = coefficients[i] / (i + 1);
+        }
+        return valueOf(result);
+    }
+
+    @Override
+    public double evaluateAt(final double x) {
+        double result = coefficients[coefficients.length - 1];
+        for (int i = coefficients.length - 2; i >= 0; i--) {
+            result = result * x + coefficients[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        checkPoints(xs, out, n);
+        final double[] c = coefficients;
+        final int grade = c.length - 1;
+        int j = 0;
+        // the Horner's rules of four points are interleaved, as they are independent their steps can overlap
+        for (; j + 4 <= n; j += 4) {
+            // points are read before writing any value, as xs and out may be the same array
+            final double x0 = xs[j];
+            final double x1 = xs[j + 1];
+            final double x2 = xs[j + 2];
+            final double x3 = xs[j + 3];
+            double r0 = c[grade];
+            double r1 = r0;
+            double r2 = r0;
+            double r3 = r0;
+            for (int i = grade - 1; i >= 0; i--) {
+                final double a = c[i];
+                r0 = r0 * x0 + a;
+                r1 = r1 * x1 + a;
+                r2 = r2 * x2 + a;
+                r3 = r3 * x3 + a;
+            }
+            out[j] = r0;
+            out[j + 1] = r1;
+            out[j + 2] = r2;
+            out[j + 3] = r3;
+        }
+        for (; j < n; j++) {
+            final double x = xs[j];
+            double result = c[grade];
+            for (int i = grade - 1; i >= 0; i--) {
+                result = result * x + c[i];
+            }
+            out[j] = result;
+        }
+    }
+
+    @Override
+    protected String textRepresentation() {
+        return coefficientsToString(coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return Optional.ofNullable(obj)
+                       .filter(o -> getClass().equals(o.getClass()))
+                       .map(o -> (DoublePolynomial2D) o)
+                       .filter(o -> Arrays.equals(this.coefficients, o.coefficients))
+                       .isPresent();
+    }
+
+    @Override
+    protected Polynomial2D monomial(final double coefficient, final int grade) {
+        return new DoublePolynomial2D(coefficient, grade);
+    }
+
+    // package-private accessor used by the codec, the array is not copied so it must not be changed
+    double[] getCoefficients() {
+        return coefficients;
+    }
+
+    /**
+     * Package-private factory that removes the highest zero coefficients and returns the corresponding function.
+     *
+     * @param coefficients
+     *          the coefficients of the function, where the i-th element is the coefficient of x^i
+     * @return
+     *          a Constant if the function has grade zero, a DoublePolynomial2D otherwise
+     */
+    static Function2D valueOf(final double[] coefficients) {
+        int length = coefficients.length;
+        while (length > 0 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        if (length <= 1) {
+            return new Constant(length == 0 ? 0 : coefficients[0]);
+        } else {
+            return new DoublePolynomial2D(length == coefficients.length ? coefficients : Arrays.copyOf(coefficients, length));
+        }
+    }
+
+    // checks whether the function can be combined with this one
+    private static boolean isPolynomial(final Function2D gx) {
+        return DoublePolynomial2D.class.isInstance(gx) || BasicPolynomial2D.class.isInstance(gx)
+               || RationalPolynomial2D.class.isInstance(gx) || SparsePolynomial2D.class.isInstance(gx);
+    }
+
+    // gets the coefficients of a polynomial function, converting them to double if necessary
+    private static double[] coefficientsOf(final Function2D gx) {
+        if (DoublePolynomial2D.class.isInstance(gx)) {
+            return ((DoublePolynomial2D) gx).coefficients;
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return ((RationalPolynomial2D) gx).toPrimitive().coefficients;
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return ((SparsePolynomial2D) gx).toPrimitive().coefficients;
+        } else {
+            return ((BasicPolynomial2D) gx).toPrimitive().coefficients;
+        }
+    }
+
+    // multiplies two polynomials given their coefficients
+    private static double[] times(final double[] p, final double[] q) {
+        final double[] result = new double[p.length + q.length - 1];
+        for (int i = 0; i < p.length; i++) {
+            for (int j = 0; j < q.length; j++) {
+                result[i + j] += p[i] * q[j];
+            }
+        }
+        return result;
+    }
+}
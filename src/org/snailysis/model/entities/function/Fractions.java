@@ -0,0 +1,88 @@
+package org.snailysis.model.entities.function;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.math3.fraction.Fraction;
+
+/**
+ * Package-private utility class that converts double values to fractions.
+ * Integers and dyadic values, such as 1/2 or 3/8, are converted exactly looking at the bits of the double;
+ * values equal to a fraction with a small denominator, such as 1/3, are found trying each denominator.
+ * Only the other values are converted by the continued fractions algorithm of Fraction, which is much slower.
+ * As the coefficients of the operations are a small set of recurring values, the conversions which
+ * are not immediate are also kept in a bounded cache, shared between threads.
+ */
+final class Fractions {
+
+    // the greatest power of two used as denominator of dyadic values, to keep it an int
+    private static final int MAX_DENOMINATOR_BITS = 30;
+    // the greatest denominator tried before using the continued fractions
+    private static final int MAX_SMALL_DENOMINATOR = 64;
+    // once the cache is full new conversions are no longer kept, as recurring values are usually converted first
+    private static final int MAX_CACHE_SIZE = 1024;
+    private static final int MANTISSA_BITS = 52;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+
+    private static final Map<Double, Fraction> CACHE = new ConcurrentHashMap<>();
+
+    // this is a utility class, so it should not be istantiated
+    private Fractions() { }
+
+    /**
+     * Converts a double value to the fraction equal to it, or to the nearest fraction found
+     * by the continued fractions algorithm if the denominator is not small.
+     *
+     * @param value
+     *          the double value
+     * @return
+     *          the fraction
+     * @throws
+     *          org.apache.commons.math3.fraction.FractionConversionException if the value cannot be converted
+     */
+    static Fraction valueOf(final double value) {
+        return dyadic(value).orElseGet(() -> {
+            final Fraction cached = CACHE.get(value);
+            if (cached != null) {
+                return cached;
+            }
+            final Fraction fraction = smallDenominator(value).orElseGet(() -> new Fraction(value));
+            if (CACHE.size() < MAX_CACHE_SIZE) {
+                CACHE.putIfAbsent(value, fraction);
+            }
+            return fraction;
+        });
+    }
+
+    // the value as an exact fraction whose denominator is a power of two, if it fits in an int
+    private static Optional<Fraction> dyadic(final double value) {
+        if (value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+            return Optional.of(new Fraction((int) value));
+        }
+        final int exponent = Math.getExponent(value);
+        if (exponent < Double.MIN_EXPONENT || exponent > Double.MAX_EXPONENT) {
+            return Optional.empty(); // subnormal, infinite or not a number
+        }
+        // value = mantissa * 2^(exponent - 52), where the trailing zeros of the mantissa simplify the denominator
+        final long mantissa = (Double.doubleToRawLongBits(value) & MANTISSA_MASK) | (1L << MANTISSA_BITS);
+        final int zeros = Long.numberOfTrailingZeros(mantissa);
+        final long numerator = mantissa >> zeros;
+        final int denominatorBits = MANTISSA_BITS - exponent - zeros;
+        if (denominatorBits <= 0 || denominatorBits > MAX_DENOMINATOR_BITS || numerator > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        return Optional.of(new Fraction((int) Math.copySign(numerator, value), 1 << denominatorBits));
+    }
+
+    // the value as an exact fraction with a small denominator, if it exists
+    private static Optional<Fraction> smallDenominator(final double value) {
+        for (int denominator = 3; denominator <= MAX_SMALL_DENOMINATOR; denominator++) {
+            final double numerator = Math.rint(value * denominator);
+            if (numerator / denominator == value && Math.abs(numerator) <= Integer.MAX_VALUE) {
+                return Optional.of(new Fraction((int) numerator, denominator));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,5 +1,9 @@
 package org.snailysis.model.entities.function;
 
+import java.util.List;
+
+import org.apache.commons.lang3.Range;
+
 /**
  * Represent a bidimensional function on a Cartesian plane, with its basic operations.
  */
@@ -147,6 +151,7 @@ public interface Function2D {
 
     /**
      * Gets a copy of the current function.
+     * As functions are immutable, the copy may share its state with the current function or be the function itself.
      * 
      * @return
      *          a copy of the current function
@@ -162,4 +167,59 @@ public interface Function2D {
      *          the value of the function
      */
     double evaluateAt(double x);
+
+    /**
+     * Evaluates the slope of the function at a certain point, that is the value of df(x)/dx.
+     * 
+     * @param x
+     *          the value of the point
+     * @return
+     *          the value of the derivative of the function
+     */
+    double slopeAt(double x);
+
+    /**
+     * Finds the points of an interval where the function crosses a certain value: f(x) = value.
+     * 
+     * @param value
+     *          the value to be reached by the function
+     * @param from
+     *          the lower bound of the interval
+     * @param to
+     *          the upper bound of the interval
+     * @return
+     *          the points found in ascending order, empty if the function is constant
+     * @throws
+     *          IllegalArgumentException if the lower bound is greater than the upper one
+     */
+    List<Double> solve(double value, double from, double to);
+
+    /**
+     * Gets the smallest range enclosing all the values of the function in an interval.
+     * 
+     * @param from
+     *          the lower bound of the interval
+     * @param to
+     *          the upper bound of the interval
+     * @return
+     *          the range from the minimum to the maximum of the function in the interval
+     * @throws
+     *          IllegalArgumentException if the lower bound is greater than the upper one
+     */
+    Range<Double> rangeOver(double from, double to);
+
+    /**
+     * Evaluates the function value at many points at once.
+     * The same array can be used both for the points and the values.
+     * 
+     * @param xs
+     *          the values of the points
+     * @param out
+     *          the array where the values of the function are stored, in the same order of the points
+     * @param n
+     *          how many points, starting from the first one, have to be evaluated
+     * @throws
+     *          IllegalArgumentException if n is negative or greater than the length of one of the arrays
+     */
+    void evaluateAt(double[] xs, double[] out, int n);
 }
@@ -0,0 +1,305 @@
+package org.snailysis.model.entities.function;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.jscience.mathematics.number.LargeInteger;
+import org.jscience.mathematics.number.Rational;
+
+/**
+ * Static utility class that writes functions in a compact binary format and reads them back.
+ * Each function is written as a tag byte telling its representation, followed by its grade and its coefficients:
+ * exact coefficients are written as pairs of numerator and denominator, with the variable length encoding
+ * of integers, so that the small fractions of the trajectories take a byte or two each, while double precision
+ * coefficients take eight bytes each; sparse polynomials only write the terms whose coefficient is not zero.
+ * Functions are read back through the factories of this package, so the result is canonical and equal to
+ * the function written, except for lazy functions which are written collapsed and read back as a single leaf.
+ * The functions of this package also use this format when they are serialized.
+ */
+public final class FunctionCodec {
+
+    private static final String ENCODING_TEXT = "Incorrect Function Encoding";
+    private static final String CLASSES_TEXT = "Incorrect Function Class";
+
+    private static final byte CONSTANT = 0;
+    private static final byte RATIONAL = 1;
+    private static final byte SPARSE = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BASIC = 4;
+    private static final byte LAZY = 5;
+
+    // each byte of a variable length integer holds seven bits, the highest one tells whether another byte follows
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int CONTINUATION_BIT = 0x80;
+    private static final int MAX_SHIFT = Long.SIZE;
+    // the largest array read and the highest grade, so that a few corrupted bytes cannot make the reader allocate gigabytes
+    private static final int MAX_SIZE = 1 << 16;
+
+    // this is a utility class, so it should not be istantiated
+    private FunctionCodec() { }
+
+    /**
+     * Encodes a function.
+     *
+     * @param function
+     *          the function
+     * @return
+     *          the bytes of the encoded function
+     * @throws
+     *          IllegalArgumentException if the function is not one of this package
+     */
+    public static byte[] encode(final Function2D function) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            write(function, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // never thrown by an array
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a function encoded by {@link #encode(Function2D)}.
+     *
+     * @param bytes
+     *          the bytes of the encoded function
+     * @return
+     *          the function
+     * @throws
+     *          IllegalArgumentException if the bytes are not an encoded function
+     */
+    public static Function2D decode(final byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final Function2D function = read(input);
+            if (input.available() > 0) {
+                throw new StreamCorruptedException(ENCODING_TEXT);
+            }
+            return function;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(ENCODING_TEXT, e);
+        }
+    }
+
+    /**
+     * Writes a function to an output.
+     *
+     * @param function
+     *          the function
+     * @param output
+     *          the output
+     * @throws IOException
+     *          if the output cannot be written
+     * @throws
+     *          IllegalArgumentException if the function is not one of this package
+     */
+    public static void write(final Function2D function, final DataOutput output) throws IOException {
+        if (Constant.class.isInstance(function)) {
+            output.writeByte(CONSTANT);
+            output.writeDouble(function.evaluateAt(0));
+        } else if (RationalPolynomial2D.class.isInstance(function)) {
+            final RationalPolynomial2D polynomial = (RationalPolynomial2D) function;
+            output.writeByte(RATIONAL);
+            writeUnsigned(polynomial.getNumerators().length - 1, output);
+            for (int i = 0; i < polynomial.getNumerators().length; i++) {
+                writeSigned(polynomial.getNumerators()[i], output);
+                writeUnsigned(polynomial.getDenominators()[i], output);
+            }
+        } else if (SparsePolynomial2D.class.isInstance(function)) {
+            final SparsePolynomial2D polynomial = (SparsePolynomial2D) function;
+            output.writeByte(SPARSE);
+            writeUnsigned(polynomial.getGrades().length, output);
+            int grade = 0;
+            for (int i = 0; i < polynomial.getGrades().length; i++) {
+                writeUnsigned(polynomial.getGrades()[i] - grade, output); // grades are increasing, so gaps are smaller
+                grade = polynomial.getGrades()[i];
+                writeSigned(polynomial.getNumerators()[i], output);
+                writeUnsigned(polynomial.getDenominators()[i], output);
+            }
+        } else if (DoublePolynomial2D.class.isInstance(function)) {
+            final double[] coefficients = ((DoublePolynomial2D) function).getCoefficients();
+            output.writeByte(DOUBLE);
+            writeUnsigned(coefficients.length - 1, output);
+            for (final double coefficient : coefficients) {
+                output.writeDouble(coefficient);
+            }
+        } else if (BasicPolynomial2D.class.isInstance(function)) {
+            final Rational[] coefficients = ((BasicPolynomial2D) function).getCoefficients();
+            output.writeByte(BASIC);
+            writeUnsigned(coefficients.length - 1, output);
+            for (final Rational coefficient : coefficients) {
+                writeLarge(coefficient.getDividend(), output);
+                writeLarge(coefficient.getDivisor(), output);
+            }
+        } else if (LazyFunction2D.class.isInstance(function)) {
+            output.writeByte(LAZY);
+            write(((LazyFunction2D) function).collapse(), output);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    /**
+     * Reads a function written by {@link #write(Function2D, DataOutput)} from an input.
+     *
+     * @param input
+     *          the input
+     * @return
+     *          the function
+     * @throws IOException
+     *          if the input cannot be read or it does not hold an encoded function
+     */
+    public static Function2D read(final DataInput input) throws IOException {
+        final byte tag = input.readByte();
+        switch (tag) {
+        case CONSTANT:
+            return new Constant(input.readDouble());
+        case RATIONAL:
+            final int length = readSize(input) + 1;
+            final long[] numerators = new long[length];
+            final long[] denominators = new long[length];
+            for (int i = 0; i < length; i++) {
+                numerators[i] = readSigned(input);
+                denominators[i] = readDenominator(numerators[i], input);
+            }
+            check(numerators[length - 1] != 0);
+            return RationalPolynomial2D.valueOf(numerators, denominators);
+        case SPARSE:
+            final int terms = readSize(input);
+            final int[] grades = new int[terms];
+            final long[] termNumerators = new long[terms];
+            final long[] termDenominators = new long[terms];
+            for (int i = 0; i < terms; i++) {
+                // the grades bound the arrays of the other representations of the polynomial, as its sizes do
+                grades[i] = (i == 0 ? 0 : grades[i - 1]) + readSize(input);
+                check((i == 0 || grades[i] > grades[i - 1]) && grades[i] < MAX_SIZE);
+                termNumerators[i] = readSigned(input);
+                termDenominators[i] = readDenominator(termNumerators[i], input);
+            }
+            return SparsePolynomial2D.valueOf(grades, termNumerators, termDenominators, terms);
+        case DOUBLE:
+            final double[] coefficients = new double[readSize(input) + 1];
+            for (int i = 0; i < coefficients.length; i++) {
+                coefficients[i] = input.readDouble();
+            }
+            return DoublePolynomial2D.valueOf(coefficients);
+        case BASIC:
+            final Rational[] rationals = new Rational[readSize(input) + 1];
+            for (int i = 0; i < rationals.length; i++) {
+                final LargeInteger dividend = readLarge(input);
+                final LargeInteger divisor = readLarge(input);
+                check(divisor.isPositive());
+                rationals[i] = Rational.valueOf(dividend, divisor);
+            }
+            check(!rationals[rationals.length - 1].isZero() && rationals.length > 1);
+            return BasicPolynomial2D.valueOf(rationals);
+        case LAZY:
+            return Functions.lazy(read(input));
+        default:
+            throw new StreamCorruptedException(ENCODING_TEXT);
+        }
+    }
+
+    // writes a not negative number with the variable length encoding
+    private static void writeUnsigned(final long value, final DataOutput output) throws IOException {
+        long rest = value;
+        while ((rest & ~PAYLOAD_MASK) != 0) {
+            output.writeByte((int) (rest & PAYLOAD_MASK) | CONTINUATION_BIT);
+            rest >>>= PAYLOAD_BITS;
+        }
+        output.writeByte((int) rest);
+    }
+
+    // writes a number with the variable length encoding, interleaving positive and negative ones (0, -1, 1, -2, ...)
+    private static void writeSigned(final long value, final DataOutput output) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> (Long.SIZE - 1)), output);
+    }
+
+    // writes an arbitrary precision integer as its length followed by its bytes
+    private static void writeLarge(final LargeInteger value, final DataOutput output) throws IOException {
+        final byte[] bytes = new byte[value.bitLength() / Byte.SIZE + 1];
+        final int length = value.toByteArray(bytes, 0);
+        writeUnsigned(length, output);
+        output.write(bytes, 0, length);
+    }
+
+    private static long readUnsigned(final DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < MAX_SHIFT; shift += PAYLOAD_BITS) {
+            final int b = input.readUnsignedByte();
+            value |= (long) (b & PAYLOAD_MASK) << shift;
+            if ((b & CONTINUATION_BIT) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException(ENCODING_TEXT);
+    }
+
+    private static long readSigned(final DataInput input) throws IOException {
+        final long value = readUnsigned(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // reads a grade or a number of terms, which must be lower than MAX_SIZE
+    private static int readSize(final DataInput input) throws IOException {
+        final long value = readUnsigned(input);
+        check(value < MAX_SIZE);
+        return (int) value;
+    }
+
+    // reads the denominator of a fraction, checking that it is positive and that the fraction is reduced,
+    // as the numerators of the polynomials with long fractions are never Long.MIN_VALUE
+    private static long readDenominator(final long numerator, final DataInput input) throws IOException {
+        final long denominator = readUnsigned(input);
+        check(numerator != Long.MIN_VALUE && denominator > 0 && RationalPolynomial2D.gcd(numerator, denominator) == 1);
+        return denominator;
+    }
+
+    private static LargeInteger readLarge(final DataInput input) throws IOException {
+        final byte[] bytes = new byte[readSize(input)];
+        check(bytes.length > 0);
+        input.readFully(bytes);
+        return LargeInteger.valueOf(bytes, 0, bytes.length);
+    }
+
+    private static void check(final boolean condition) throws IOException {
+        if (!condition) {
+            throw new StreamCorruptedException(ENCODING_TEXT);
+        }
+    }
+
+    /**
+     * Serialized form of the functions of this package, holding their encoding.
+     * Functions replace themselves with it when they are serialized, and it is replaced with the decoded function
+     * when it is deserialized, so that the serialized form never includes the objects inside the functions.
+     */
+    static final class SerializedFunction implements Serializable {
+
+        private static final long serialVersionUID = 8351770410573497146L;
+
+        private final byte[] bytes;
+
+        /**
+         * Creates the serialized form of a function.
+         *
+         * @param function
+         *          the function
+         */
+        SerializedFunction(final Function2D function) {
+            this.bytes = encode(function);
+        }
+
+        private Object readResolve() {
+            return decode(Arrays.copyOf(bytes, bytes.length));
+        }
+    }
+}
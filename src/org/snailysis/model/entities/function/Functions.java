@@ -1,10 +1,18 @@
 package org.snailysis.model.entities.function;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
 /**
  * Static Factory used to create basic functions.
  */
 public final class Functions {
 
+    // canonical instances, weakly referenced so that unused functions can still be garbage collected
+    private static final Map<Function2D, WeakReference<Function2D>> CANONICALS = new WeakHashMap<>();
+
     // this is a utility class, so it should not be istantiated
     private Functions() { }
 
@@ -33,6 +41,79 @@ public final class Functions {
      *          IllegalArgumentException if grade is not positive
      */
     public static Polynomial2D polynomial(final double coefficient, final int grade) {
+        return RationalPolynomial2D.valueOf(coefficient, grade);
+    }
+
+    /**
+     * Gets the canonical instance of a function: equal functions always share the same canonical instance,
+     * so that they can be compared by reference and used as fast map keys.
+     * If no equal function has been made canonical yet, the function itself becomes the canonical instance.
+     * 
+     * @param function
+     *          the function
+     * @return
+     *          the canonical instance equal to the function
+     */
+    public static Function2D canonical(final Function2D function) {
+        synchronized (CANONICALS) {
+            return Optional.ofNullable(CANONICALS.get(function))
+                           .map(WeakReference::get)
+                           .orElseGet(() -> {
+                               CANONICALS.put(function, new WeakReference<>(function));
+                               return function;
+                           });
+        }
+    }
+
+    /**
+     * Gets a lazy version of a function, which records the operations performed on it
+     * and computes them only when needed, simplifying them meanwhile.
+     * 
+     * @param function
+     *          the function
+     * @return
+     *          the function itself if it is already lazy, a lazy function equal to it otherwise
+     */
+    public static Function2D lazy(final Function2D function) {
+        return LazyFunction2D.of(function);
+    }
+
+    /**
+     * Creates the function f(x) = ax^b with double precision coefficients.
+     * The resulting function is much faster to be evaluated than the one created by
+     * {@link #polynomial(double, int)}, but combining it with other polynomials
+     * always gives a result with double precision coefficients.
+     * 
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @return
+     *          the function created
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    public static Polynomial2D primitivePolynomial(final double coefficient, final int grade) {
+        return new DoublePolynomial2D(coefficient, grade);
+    }
+
+    /**
+     * Creates the function f(x) = ax^b with arbitrary precision coefficients.
+     * The other factories only use them once long fractions overflow, and the results of the operations
+     * go back to long fractions whenever they fit, so this is mostly useful to compare the representations.
+     * 
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @return
+     *          the function created
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    public static Polynomial2D arbitraryPrecisionPolynomial(final double coefficient, final int grade) {
         return new BasicPolynomial2D(coefficient, grade);
     }
 }
@@ -0,0 +1,331 @@
+package org.snailysis.model.entities.function;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.lang3.Range;
+import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
+
+/**
+ * Implementation of the interface Function2D that records the operations performed instead of computing them.
+ * The function is an expression made of sums, products, compositions and integrals of other functions,
+ * which is simplified while it is built: for example d/dx(Sf(x)dx) = f(x), -(-f(x)) = f(x) and f(2x) then f(x/2) = f(x).
+ * Derivatives are pushed down to the leaves of the expression, where they are cheaper to compute.
+ * The expression is collapsed into a single function only when it is really needed, such as when getting its text
+ * or evaluating many points at once, and the collapsed function is then kept; evaluating a single point
+ * does not collapse the expression, except for the integrals in it.
+ * Combining this function with others always gives a LazyFunction2D, while other functions cannot be combined with it.
+ */
+public final class LazyFunction2D implements Function2D, Serializable {
+
+    private static final long serialVersionUID = 3186406926120734415L;
+    // beyond this number of nodes the expression is collapsed, to bound the cost of evaluating it without collapsing
+    private static final int MAX_SIZE = 32;
+    private static final Function2D X = Functions.polynomial(1, 1);
+
+    private enum Kind {
+        LEAF, SUM, PRODUCT, COMPOSITION, INTEGRAL;
+    }
+
+    private final Kind kind;
+    // the function of a leaf, null otherwise
+    private final Function2D leaf;
+    // the operands, the second one is null for leaves and integrals
+    private final LazyFunction2D first;
+    private final LazyFunction2D second;
+    private final int size;
+    private final int hash;
+    // as the expression is immutable, both the collapsed function and the derivative can be computed only once
+    private transient Function2D collapsed;
+    private transient LazyFunction2D derivative;
+
+    private LazyFunction2D(final Kind kind, final Function2D leaf, final LazyFunction2D first, final LazyFunction2D second) {
+        this.kind = kind;
+        this.leaf = leaf;
+        this.first = first;
+        this.second = second;
+        this.size = 1 + (first == null ? 0 : first.size) + (second == null ? 0 : second.size);
+        this.hash = Objects.hash(kind.ordinal(), leaf, first, second);
+    }
+
+    /**
+     * Package-private factory that gets the lazy version of a function.
+     *
+     * @param function
+     *          the function
+     * @return
+     *          the function itself if it is already lazy, a lazy function wrapping it otherwise
+     */
+    static LazyFunction2D of(final Function2D function) {
+        return LazyFunction2D.class.isInstance(function) ? (LazyFunction2D) function
+                                                         : new LazyFunction2D(Kind.LEAF, function, null, null);
+    }
+
+    @Override
+    public Function2D add(final Function2D gx) {
+        return sum(this, of(gx));
+    }
+
+    @Override
+    public Function2D multiply(final Function2D gx) {
+        return product(this, of(gx));
+    }
+
+    @Override
+    public Function2D compose(final Function2D gx) {
+        return composition(this, of(gx));
+    }
+
+    @Override
+    public Function2D identity() {
+        return this;
+    }
+
+    @Override
+    public Function2D translateOnY(final double constant) {
+        return sum(this, constant(constant));
+    }
+
+    @Override
+    public Function2D translateOnX(final double constant) {
+        return composition(this, of(X.translateOnY(constant)));
+    }
+
+    @Override
+    public Function2D opposeOnY() {
+        return this.dilateOnY(-1);
+    }
+
+    @Override
+    public Function2D opposeOnX() {
+        return this.dilateOnX(-1);
+    }
+
+    @Override
+    public Function2D dilateOnY(final double coefficient) {
+        ExceptionUtilities.checkNotZero(coefficient, AbstractFunction2D.ZERO_TEXT);
+        return product(this, constant(coefficient));
+    }
+
+    @Override
+    public Function2D dilateOnX(final double coefficient) {
+        ExceptionUtilities.checkNotZero(coefficient, AbstractFunction2D.ZERO_TEXT);
+        return composition(this, of(Functions.polynomial(coefficient, 1)));
+    }
+
+    @Override
+    public Function2D powerOnY(final int power) {
+        ExceptionUtilities.checkPositive(power, AbstractFunction2D.NOT_POSITIVE_TEXT);
+        return composition(of(Functions.polynomial(1, power)), this);
+    }
+
+    @Override
+    public Function2D powerOnX(final int power) {
+        ExceptionUtilities.checkPositive(power, AbstractFunction2D.NOT_POSITIVE_TEXT);
+        return composition(this, of(Functions.polynomial(1, power)));
+    }
+
+    @Override
+    public Function2D differentiate() {
+        if (derivative == null) {
+            derivative = derivativeOf(this);
+        }
+        return derivative;
+    }
+
+    @Override
+    public Function2D integrate() {
+        return integralOf(this);
+    }
+
+    @Override
+    public Function2D getCopy() {
+        return this; // the function is immutable
+    }
+
+    @Override
+    public double evaluateAt(final double x) {
+        if (collapsed != null) {
+            return collapsed.evaluateAt(x);
+        }
+        switch (kind) {
+        case LEAF:
+            return leaf.evaluateAt(x);
+        case SUM:
+            return first.evaluateAt(x) + second.evaluateAt(x);
+        case PRODUCT:
+            return first.evaluateAt(x) * second.evaluateAt(x);
+        case COMPOSITION:
+            return first.evaluateAt(second.evaluateAt(x));
+        default:
+            return collapse().evaluateAt(x);
+        }
+    }
+
+    @Override
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        collapse().evaluateAt(xs, out, n);
+    }
+
+    @Override
+    public double slopeAt(final double x) {
+        return differentiate().evaluateAt(x);
+    }
+
+    @Override
+    public List<Double> solve(final double value, final double from, final double to) {
+        return collapse().solve(value, from, to);
+    }
+
+    @Override
+    public Range<Double> rangeOver(final double from, final double to) {
+        return collapse().rangeOver(from, to);
+    }
+
+    /**
+     * Gets the single function obtained computing every operation of the expression.
+     * The computation is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the collapsed function
+     */
+    public Function2D collapse() {
+        if (collapsed == null) {
+            switch (kind) {
+            case LEAF:
+                collapsed = leaf;
+                break;
+            case SUM:
+                collapsed = first.collapse().add(second.collapse());
+                break;
+            case PRODUCT:
+                collapsed = first.collapse().multiply(second.collapse());
+                break;
+            case COMPOSITION:
+                collapsed = first.collapse().compose(second.collapse());
+                break;
+            default:
+                collapsed = first.collapse().integrate();
+                break;
+            }
+        }
+        return collapsed;
+    }
+
+    @Override
+    public String toString() {
+        return collapse().toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        // expressions are compared node by node, so equal functions given by different expressions are not equal
+        return this == obj || (obj instanceof LazyFunction2D
+                               && ((LazyFunction2D) obj).hash == hash
+                               && ((LazyFunction2D) obj).kind == kind
+                               && Objects.equals(((LazyFunction2D) obj).leaf, leaf)
+                               && Objects.equals(((LazyFunction2D) obj).first, first)
+                               && Objects.equals(((LazyFunction2D) obj).second, second));
+    }
+
+    // the function is serialized collapsed, with its compact encoding (see FunctionCodec)
+    private Object writeReplace() {
+        return new FunctionCodec.SerializedFunction(this);
+    }
+
+    private boolean isConstant() {
+        return kind == Kind.LEAF && Constant.class.isInstance(leaf);
+    }
+
+    // checks whether the function is f(x) = value
+    private boolean isConstant(final double value) {
+        return isConstant() && leaf.evaluateAt(0) == value;
+    }
+
+    private boolean isIdentity() {
+        return kind == Kind.LEAF && X.equals(leaf);
+    }
+
+    private static LazyFunction2D constant(final double value) {
+        return of(new Constant(value));
+    }
+
+    // creates a node, collapsing it if the expression becomes too big
+    private static LazyFunction2D node(final Kind kind, final LazyFunction2D first, final LazyFunction2D second) {
+        final LazyFunction2D node = new LazyFunction2D(kind, null, first, second);
+        return node.size > MAX_SIZE ? of(node.collapse()) : node;
+    }
+
+    private static LazyFunction2D sum(final LazyFunction2D a, final LazyFunction2D b) {
+        if (a.isConstant() && b.isConstant()) {
+            return constant(a.evaluateAt(0) + b.evaluateAt(0));
+        } else if (b.isConstant(0)) {
+            return a;
+        } else if (a.isConstant(0)) {
+            return b;
+        }
+        return node(Kind.SUM, a, b);
+    }
+
+    private static LazyFunction2D product(final LazyFunction2D a, final LazyFunction2D b) {
+        if (a.isConstant() && !b.isConstant()) {
+            return product(b, a); // constants are kept as second operand, so that they can be merged
+        } else if (b.isConstant(0)) {
+            return b;
+        } else if (b.isConstant(1)) {
+            return a;
+        } else if (a.isConstant()) {
+            return constant(a.evaluateAt(0) * b.evaluateAt(0));
+        } else if (b.isConstant() && a.kind == Kind.PRODUCT && a.second.isConstant()) {
+            return product(a.first, constant(a.second.evaluateAt(0) * b.evaluateAt(0))); // (kf(x))h = (kh)f(x)
+        }
+        return node(Kind.PRODUCT, a, b);
+    }
+
+    private static LazyFunction2D composition(final LazyFunction2D f, final LazyFunction2D g) {
+        if (f.isConstant() || g.isIdentity()) {
+            return f;
+        } else if (f.isIdentity()) {
+            return g;
+        } else if (g.isConstant()) {
+            return constant(f.evaluateAt(g.evaluateAt(0)));
+        } else if (f.kind == Kind.COMPOSITION && f.second.kind == Kind.LEAF && g.kind == Kind.LEAF) {
+            // h(k(x)) composed with g(x) is h(k(g(x))), where k(g(x)) is small enough to be computed
+            return composition(f.first, of(f.second.leaf.compose(g.leaf)));
+        }
+        return node(Kind.COMPOSITION, f, g);
+    }
+
+    private static LazyFunction2D derivativeOf(final LazyFunction2D f) {
+        switch (f.kind) {
+        case LEAF:
+            return of(f.leaf.differentiate());
+        case SUM:
+            return sum(derivativeOf(f.first), derivativeOf(f.second));
+        case PRODUCT:
+            return sum(product(derivativeOf(f.first), f.second), product(f.first, derivativeOf(f.second)));
+        case COMPOSITION:
+            return product(composition(derivativeOf(f.first), f.second), derivativeOf(f.second));
+        default:
+            return f.first; // d/dx(Sf(x)dx) = f(x)
+        }
+    }
+
+    private static LazyFunction2D integralOf(final LazyFunction2D f) {
+        // integrals are kept as nodes, so that differentiating them gives back exactly the same function
+        if (f.isConstant()) {
+            return of(f.leaf.integrate());
+        } else if (f.kind == Kind.SUM) {
+            return sum(integralOf(f.first), integralOf(f.second));
+        } else if (f.kind == Kind.PRODUCT && f.second.isConstant()) {
+            return product(integralOf(f.first), f.second);
+        }
+        return node(Kind.INTEGRAL, f, null);
+    }
+}
@@ -0,0 +1,384 @@
+package org.snailysis.model.entities.function;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.apache.commons.math3.fraction.Fraction;
+import org.jscience.mathematics.number.Rational;
+import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
+
+/**
+ * Implementation of the interface Polynomial2D with exact rational coefficients,
+ * each one stored as a reduced pair of long numerator and denominator.
+ * Operations are performed with overflow detection: as trajectories have small grades and small fractions
+ * as coefficients this rarely happens, otherwise the operation is performed again by a BasicPolynomial2D,
+ * which never overflows, and its result is returned.
+ * As BasicPolynomial2D does, evaluations are performed on a double precision copy of the polynomial
+ * and the instances created by this package are canonical.
+ * When most of the coefficients are zero the factories of this package create a SparsePolynomial2D instead.
+ */
+public final class RationalPolynomial2D extends AbstractPolynomial2D implements Serializable {
+
+    private static final long serialVersionUID = -5214703934496207816L;
+    private static final String CLASSES_TEXT = "Incorrect Function Class";
+    private static final String OVERFLOW_TEXT = "Long Overflow";
+
+    // the i-th elements are the numerator and the denominator of the coefficient of x^i, the last one is never zero
+    private final long[] numerators;
+    private final long[] denominators;
+    private final int hash;
+    // as the polynomial is immutable its other representations can be computed only once
+    private transient DoublePolynomial2D evaluator;
+    private transient BasicPolynomial2D fallback;
+
+    /**
+     * Package-private constructor to create Polynomial2D representing f(x) = ax^b.
+     *
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    RationalPolynomial2D(final double coefficient, final int grade) {
+        super();
+        ExceptionUtilities.checkNotZero(coefficient, ZERO_TEXT);
+        ExceptionUtilities.checkPositive(grade, NOT_POSITIVE_TEXT);
+        final Fraction fraction = Fractions.valueOf(coefficient);
+        ExceptionUtilities.checkNotZero(fraction.getNumerator(), ZERO_TEXT); // too small coefficients become zero
+        this.numerators = new long[grade + 1];
+        this.denominators = new long[grade + 1];
+        Arrays.fill(this.denominators, 1);
+        this.numerators[grade] = fraction.getNumerator();
+        this.denominators[grade] = fraction.getDenominator();
+        this.hash = computeHash(numerators, denominators);
+    }
+
+    // package-private constructor, the arrays must be already reduced and trimmed and they are not copied
+    RationalPolynomial2D(final long[] numerators, final long[] denominators) {
+        super();
+        this.numerators = numerators;
+        this.denominators = denominators;
+        this.hash = computeHash(numerators, denominators);
+    }
+
+    @Override
+    public Function2D add(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            if (gx.evaluateAt(0) == 0) {
+                return Functions.canonical(this);
+            }
+            final Fraction c = Fractions.valueOf(gx.evaluateAt(0));
+            return exactly(() -> {
+                final long[] n = numerators.clone();
+                final long[] d = denominators.clone();
+                sum(n, d, 0, c.getNumerator(), c.getDenominator());
+                return valueOf(n, d);
+            }, () -> toBasic().add(gx));
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            final RationalPolynomial2D other = (RationalPolynomial2D) gx;
+            return exactly(() -> {
+                final int length = Math.max(numerators.length, other.numerators.length);
+                final long[] n = Arrays.copyOf(numerators, length);
+                final long[] d = Arrays.copyOf(denominators, length);
+                Arrays.fill(d, denominators.length, length, 1);
+                for (int i = 0; i < other.numerators.length; i++) {
+                    sum(n, d, i, other.numerators[i], other.denominators[i]);
+                }
+                return valueOf(n, d);
+            }, () -> toBasic().add(other.toBasic()));
+        } else if (BasicPolynomial2D.class.isInstance(gx)) {
+            return toBasic().add(gx);
+        } else if (DoublePolynomial2D.class.isInstance(gx) || SparsePolynomial2D.class.isInstance(gx)) {
+            return gx.add(this);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D multiply(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            if (gx.evaluateAt(0) == 0) {
+                return new Constant(0);
+            }
+            final Fraction k = Fractions.valueOf(gx.evaluateAt(0));
+            return exactly(() -> times(new long[] {k.getNumerator()}, new long[] {k.getDenominator()}),
+                           () -> toBasic().multiply(gx));
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            final RationalPolynomial2D other = (RationalPolynomial2D) gx;
+            return exactly(() -> times(other.numerators, other.denominators), () -> toBasic().multiply(other.toBasic()));
+        } else if (BasicPolynomial2D.class.isInstance(gx)) {
+            return toBasic().multiply(gx);
+        } else if (DoublePolynomial2D.class.isInstance(gx) || SparsePolynomial2D.class.isInstance(gx)) {
+            return gx.multiply(this);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D compose(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            return new Constant(this.evaluateAt(gx.evaluateAt(0))); // f(k) = h
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            final RationalPolynomial2D inner = (RationalPolynomial2D) gx;
+            return exactly(() -> {
+                // Horner's rule over polynomials: f(g) = (...(an * g + an-1) * g + ...) * g + a0
+                final int grade = numerators.length - 1;
+                RationalPolynomial2D result = new RationalPolynomial2D(new long[] {numerators[grade]},
+                                                                       new long[] {denominators[grade]});
+                for (int i = grade - 1; i >= 0; i--) {
+                    final long[][] product = result.product(inner.numerators, inner.denominators);
+                    sum(product[0], product[1], 0, numerators[i], denominators[i]);
+                    result = new RationalPolynomial2D(product[0], product[1]);
+                }
+                return valueOf(result.numerators, result.denominators);
+            }, () -> toBasic().compose(inner.toBasic()));
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return this.compose(((SparsePolynomial2D) gx).toRational());
+        } else if (BasicPolynomial2D.class.isInstance(gx)) {
+            return toBasic().compose(gx);
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return toPrimitive().compose(gx);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D differentiate() {
+        return exactly(() -> {
+            final long[] n = new long[numerators.length - 1];
+            final long[] d = new long[numerators.length - 1];
+            for (int i = 0; i < n.length; i++) {
+                final long g = gcd(i + 1, denominators[i + 1]);
+                n[i] = Math.multiplyExact(numerators[i + 1], (i + 1) / g);
+                d[i] = denominators[i + 1] / g;
+            }
+            return valueOf(n, d);
+        }, () -> toBasic().differentiate());
+    }
+
+    @Override
+    public Function2D integrate() {
+        return exactly(() -> {
+            final long[] n = new long[numerators.length + 1];
+            final long[] d = new long[numerators.length + 1];
+            d[0] = 1;
+            for (int i = 0; i < numerators.length; i++) {
+                final long g = gcd(numerators[i], i + 1);
+                n[i + 1] = numerators[i] / g;
+                d[i + 1] = Math.multiplyExact(denominators[i], (i + 1) / g);
+            }
+            return valueOf(n, d);
+        }, () -> toBasic().integrate());
+    }
+
+    @Override
+    public double evaluateAt(final double x) {
+        return toPrimitive().evaluateAt(x);
+    }
+
+    @Override
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        toPrimitive().evaluateAt(xs, out, n);
+    }
+
+    @Override
+    protected String textRepresentation() {
+        return termsToString(numerators.length - 1, i -> Long.signum(numerators[i]),
+            i -> denominators[i] == 1 ? Long.toString(Math.abs(numerators[i])) : Math.abs(numerators[i]) + "/" + denominators[i]);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        // canonical instances are compared by reference, the reduced coefficients are compared otherwise
+        return this == obj || (obj instanceof RationalPolynomial2D
+                               && ((RationalPolynomial2D) obj).hash == hash
+                               && Arrays.equals(((RationalPolynomial2D) obj).numerators, numerators)
+                               && Arrays.equals(((RationalPolynomial2D) obj).denominators, denominators));
+    }
+
+    @Override
+    protected Polynomial2D monomial(final double coefficient, final int grade) {
+        return valueOf(coefficient, grade);
+    }
+
+    /**
+     * Package-private method to get the same function with double precision coefficients.
+     * The conversion is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the function as a DoublePolynomial2D
+     */
+    DoublePolynomial2D toPrimitive() {
+        if (evaluator == null) {
+            final double[] coefficients = new double[numerators.length];
+            for (int i = 0; i < coefficients.length; i++) {
+                coefficients[i] = (double) numerators[i] / denominators[i];
+            }
+            // a RationalPolynomial2D is never constant, so neither its copy is
+            evaluator = (DoublePolynomial2D) DoublePolynomial2D.valueOf(coefficients);
+        }
+        return evaluator;
+    }
+
+    /**
+     * Package-private method to get the same function with arbitrary precision coefficients.
+     * The conversion is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the function as a BasicPolynomial2D
+     */
+    BasicPolynomial2D toBasic() {
+        if (fallback == null) {
+            final Rational[] coefficients = new Rational[numerators.length];
+            for (int i = 0; i < coefficients.length; i++) {
+                coefficients[i] = Rational.valueOf(numerators[i], denominators[i]);
+            }
+            fallback = BasicPolynomial2D.valueOf(coefficients);
+        }
+        return fallback;
+    }
+
+    // package-private accessors used by the codec, the arrays are not copied so they must not be changed
+    long[] getNumerators() {
+        return numerators;
+    }
+
+    long[] getDenominators() {
+        return denominators;
+    }
+
+    /**
+     * Package-private method to get the same function storing only the coefficients which are not zero.
+     *
+     * @return
+     *          the function as a SparsePolynomial2D, which is not canonical
+     */
+    SparsePolynomial2D toSparse() {
+        return SparsePolynomial2D.of(numerators, denominators);
+    }
+
+    /**
+     * Package-private factory that creates the canonical polynomial f(x) = ax^b,
+     * which is a SparsePolynomial2D if the grade is high enough.
+     *
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @return
+     *          the function created
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    static Polynomial2D valueOf(final double coefficient, final int grade) {
+        return (Polynomial2D) Functions.canonical(SparsePolynomial2D.isSparse(1, grade) ? new SparsePolynomial2D(coefficient, grade)
+                                                                                         : new RationalPolynomial2D(coefficient, grade));
+    }
+
+    // multiplies the polynomial by the one having the given coefficients
+    private Function2D times(final long[] otherNumerators, final long[] otherDenominators) {
+        final long[][] product = product(otherNumerators, otherDenominators);
+        return valueOf(product[0], product[1]);
+    }
+
+    // gets numerators and denominators of the product of the polynomial by the one having the given coefficients
+    private long[][] product(final long[] otherNumerators, final long[] otherDenominators) {
+        final int length = numerators.length + otherNumerators.length - 1;
+        final long[] n = new long[length];
+        final long[] d = new long[length];
+        Arrays.fill(d, 1);
+        for (int i = 0; i < numerators.length; i++) {
+            for (int j = 0; j < otherNumerators.length; j++) {
+                // cross reduction keeps the factors as small as possible before multiplying them
+                final long g1 = gcd(numerators[i], otherDenominators[j]);
+                final long g2 = gcd(otherNumerators[j], denominators[i]);
+                sum(n, d, i + j, Math.multiplyExact(numerators[i] / g1, otherNumerators[j] / g2),
+                                 Math.multiplyExact(denominators[i] / g2, otherDenominators[j] / g1));
+            }
+        }
+        return new long[][] {n, d};
+    }
+
+    // performs the operation with long arithmetic, or with the fallback one if an overflow is detected
+    static Function2D exactly(final Supplier<Function2D> operation, final Supplier<Function2D> fallback) {
+        try {
+            return operation.get();
+        } catch (ArithmeticException e) {
+            return fallback.get();
+        }
+    }
+
+    // adds the reduced fraction numerator/denominator to the i-th coefficient, keeping it reduced
+    static void sum(final long[] n, final long[] d, final int i, final long numerator, final long denominator) {
+        if (numerator != 0) {
+            final long g = gcd(d[i], denominator);
+            final long resultNumerator = Math.addExact(Math.multiplyExact(n[i], denominator / g),
+                                                       Math.multiplyExact(numerator, d[i] / g));
+            final long resultDenominator = Math.multiplyExact(d[i] / g, denominator);
+            final long reduction = resultNumerator == 0 ? resultDenominator : gcd(resultNumerator, resultDenominator);
+            n[i] = resultNumerator / reduction;
+            d[i] = resultDenominator / reduction;
+        }
+    }
+
+    // gets the greatest common divisor of the absolute values, the second one must not be zero
+    static long gcd(final long a, final long b) {
+        checkNotMinimum(a);
+        checkNotMinimum(b);
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+        while (y != 0) {
+            final long t = x % y;
+            x = y;
+            y = t;
+        }
+        return x;
+    }
+
+    /*
+     * Long.MIN_VALUE has no absolute value among long values, so reaching it is treated as an overflow
+     * and the operation falls back to arbitrary precision
+     */
+    static void checkNotMinimum(final long value) {
+        if (value == Long.MIN_VALUE) {
+            throw new ArithmeticException(OVERFLOW_TEXT);
+        }
+    }
+
+    private static int computeHash(final long[] numerators, final long[] denominators) {
+        return 31 * Arrays.hashCode(numerators) + Arrays.hashCode(denominators);
+    }
+
+    /*
+     * package-private factory that removes the highest zero coefficients and returns the corresponding
+     * canonical function, which is a SparsePolynomial2D if most of the coefficients are zero
+     */
+    static Function2D valueOf(final long[] numerators, final long[] denominators) {
+        Arrays.stream(numerators).forEach(RationalPolynomial2D::checkNotMinimum);
+        int length = numerators.length;
+        while (length > 0 && numerators[length - 1] == 0) {
+            length--;
+        }
+        if (length <= 1) {
+            return new Constant(length == 0 ? 0 : (double) numerators[0] / denominators[0]);
+        } else if (SparsePolynomial2D.isSparse((int) Arrays.stream(numerators, 0, length).filter(n -> n != 0).count(), length - 1)) {
+            return Functions.canonical(SparsePolynomial2D.of(numerators, denominators));
+        } else {
+            return Functions.canonical(new RationalPolynomial2D(Arrays.copyOf(numerators, length),
+                                                                Arrays.copyOf(denominators, length)));
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package org.snailysis.model.entities.function;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.fraction.Fraction;
+import org.jscience.mathematics.number.Rational;
+import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
+
+/**
+ * Implementation of the interface Polynomial2D with exact rational coefficients, storing only the terms
+ * whose coefficient is not zero, each one as its grade and a reduced pair of long numerator and denominator.
+ * High grade polynomials with few terms, such as the ones given by squaring a function many times,
+ * are stored in this way instead of as RationalPolynomial2D: the factories of this package choose
+ * the representation by the fraction of coefficients which are not zero, so memory and evaluation time
+ * depend on the number of terms rather than on the grade.
+ * Evaluations raise x to the grade of each term by squaring; as RationalPolynomial2D does, operations fall back
+ * to a BasicPolynomial2D when an overflow is detected and the instances created by this package are canonical.
+ */
+public final class SparsePolynomial2D extends AbstractPolynomial2D implements Serializable {
+
+    private static final long serialVersionUID = 2466830139567106321L;
+    private static final String CLASSES_TEXT = "Incorrect Function Class";
+    // polynomials with a lower grade are never sparse, as the dense evaluation is already cheap enough
+    private static final int MIN_GRADE = 8;
+    // polynomials are sparse when at most one coefficient out of FILL_RATIO is not zero
+    private static final int FILL_RATIO = 4;
+
+    // the i-th elements are the grade, the numerator and the denominator of the i-th term, by increasing grade
+    private final int[] grades;
+    private final long[] numerators;
+    private final long[] denominators;
+    private final int hash;
+    // as the polynomial is immutable its other representations can be computed only once
+    private transient double[] values;
+    private transient DoublePolynomial2D evaluator;
+    private transient BasicPolynomial2D fallback;
+
+    /**
+     * Package-private constructor to create Polynomial2D representing f(x) = ax^b.
+     *
+     * @param coefficient
+     *          the value of a
+     * @param grade
+     *          the value of b
+     * @throws
+     *          IllegalArgumentException if coefficient is zero
+     *          IllegalArgumentException if grade is not positive
+     */
+    SparsePolynomial2D(final double coefficient, final int grade) {
+        super();
+        ExceptionUtilities.checkNotZero(coefficient, ZERO_TEXT);
+        ExceptionUtilities.checkPositive(grade, NOT_POSITIVE_TEXT);
+        final Fraction fraction = Fractions.valueOf(coefficient);
+        ExceptionUtilities.checkNotZero(fraction.getNumerator(), ZERO_TEXT); // too small coefficients become zero
+        this.grades = new int[] {grade};
+        this.numerators = new long[] {fraction.getNumerator()};
+        this.denominators = new long[] {fraction.getDenominator()};
+        this.hash = computeHash(grades, numerators, denominators);
+    }
+
+    // private constructor, the terms must be already reduced and sorted and the arrays are not copied
+    private SparsePolynomial2D(final int[] grades, final long[] numerators, final long[] denominators) {
+        super();
+        this.grades = grades;
+        this.numerators = numerators;
+        this.denominators = denominators;
+        this.hash = computeHash(grades, numerators, denominators);
+    }
+
+    @Override
+    public Function2D add(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            if (gx.evaluateAt(0) == 0) {
+                return Functions.canonical(this);
+            }
+            final Fraction c = Fractions.valueOf(gx.evaluateAt(0));
+            return plus(new SparsePolynomial2D(new int[] {0}, new long[] {c.getNumerator()}, new long[] {c.getDenominator()}));
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return plus((SparsePolynomial2D) gx);
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return plus(((RationalPolynomial2D) gx).toSparse());
+        } else if (BasicPolynomial2D.class.isInstance(gx)) {
+            return toBasic().add(gx);
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return gx.add(this);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D multiply(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            if (gx.evaluateAt(0) == 0) {
+                return new Constant(0);
+            }
+            final Fraction k = Fractions.valueOf(gx.evaluateAt(0));
+            return times(new SparsePolynomial2D(new int[] {0}, new long[] {k.getNumerator()}, new long[] {k.getDenominator()}));
+        } else if (SparsePolynomial2D.class.isInstance(gx)) {
+            return times((SparsePolynomial2D) gx);
+        } else if (RationalPolynomial2D.class.isInstance(gx)) {
+            return times(((RationalPolynomial2D) gx).toSparse());
+        } else if (BasicPolynomial2D.class.isInstance(gx)) {
+            return toBasic().multiply(gx);
+        } else if (DoublePolynomial2D.class.isInstance(gx)) {
+            return gx.multiply(this);
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D compose(final Function2D gx) {
+        if (Constant.class.isInstance(gx)) {
+            return new Constant(this.evaluateAt(gx.evaluateAt(0))); // f(k) = h
+        } else if (SparsePolynomial2D.class.isInstance(gx) || RationalPolynomial2D.class.isInstance(gx)
+                   || BasicPolynomial2D.class.isInstance(gx) || DoublePolynomial2D.class.isInstance(gx)) {
+            /*
+             * f(g) = a0 * g^b0 + a1 * g^b1 + ... + an * g^bn, where each power is obtained from the previous one
+             * multiplying it by g^(bi - bi-1), computed by squaring: the operations of g keep it exact when possible
+             */
+            Function2D result = new Constant(0);
+            Function2D power = new Constant(1);
+            int grade = 0;
+            for (int i = 0; i < grades.length; i++) {
+                power = power.multiply(power(gx, grades[i] - grade));
+                grade = grades[i];
+                result = result.add(timesCoefficient(power, i));
+            }
+            return result;
+        } else {
+            throw new IllegalArgumentException(CLASSES_TEXT);
+        }
+    }
+
+    @Override
+    public Function2D differentiate() {
+        return RationalPolynomial2D.exactly(() -> {
+            final int[] g = new int[grades.length];
+            final long[] n = new long[grades.length];
+            final long[] d = new long[grades.length];
+            for (int i = 0; i < grades.length; i++) {
+                final long reduction = RationalPolynomial2D.gcd(grades[i], denominators[i]);
+                g[i] = Math.max(grades[i] - 1, 0);
+                n[i] = Math.multiplyExact(numerators[i], grades[i] / reduction); // the constant term becomes zero
+                d[i] = denominators[i] / reduction;
+            }
+            return valueOf(g, n, d, grades.length);
+        }, () -> toBasic().differentiate());
+    }
+
+    @Override
+    public Function2D integrate() {
+        return RationalPolynomial2D.exactly(() -> {
+            final int[] g = new int[grades.length];
+            final long[] n = new long[grades.length];
+            final long[] d = new long[grades.length];
+            for (int i = 0; i < grades.length; i++) {
+                final long reduction = RationalPolynomial2D.gcd(numerators[i], grades[i] + 1);
+                g[i] = Math.addExact(grades[i], 1);
+                n[i] = numerators[i] / reduction;
+                d[i] = Math.multiplyExact(denominators[i], (grades[i] + 1) / reduction);
+            }
+            return valueOf(g, n, d, grades.length);
+        }, () -> toBasic().integrate());
+    }
+
+    @Override
+    public double evaluateAt(final double x) {
+        final double[] c = getValues();
+        double result = 0;
+        double power = 1;
+        int grade = 0;
+        for (int i = 0; i < c.length; i++) {
+            power *= power(x, grades[i] - grade);
+            grade = grades[i];
+            result += c[i] * power;
+        }
+        return result;
+    }
+
+    @Override
+    public void evaluateAt(final double[] xs, final double[] out, final int n) {
+        checkPoints(xs, out, n);
+        for (int j = 0; j < n; j++) {
+            out[j] = evaluateAt(xs[j]);
+        }
+    }
+
+    @Override
+    protected String textRepresentation() {
+        return termsToString(grades[grades.length - 1], i -> {
+            final int term = Arrays.binarySearch(grades, i);
+            return term < 0 ? 0 : Long.signum(numerators[term]);
+        }, i -> {
+            final int term = Arrays.binarySearch(grades, i);
+            return denominators[term] == 1 ? Long.toString(Math.abs(numerators[term]))
+                                           : Math.abs(numerators[term]) + "/" + denominators[term];
+        });
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        // canonical instances are compared by reference, the reduced terms are compared otherwise
+        return this == obj || (obj instanceof SparsePolynomial2D
+                               && ((SparsePolynomial2D) obj).hash == hash
+                               && Arrays.equals(((SparsePolynomial2D) obj).grades, grades)
+                               && Arrays.equals(((SparsePolynomial2D) obj).numerators, numerators)
+                               && Arrays.equals(((SparsePolynomial2D) obj).denominators, denominators));
+    }
+
+    @Override
+    protected Polynomial2D monomial(final double coefficient, final int grade) {
+        return RationalPolynomial2D.valueOf(coefficient, grade);
+    }
+
+    /**
+     * Package-private method to get the same function with double precision coefficients.
+     * The conversion is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the function as a DoublePolynomial2D
+     */
+    DoublePolynomial2D toPrimitive() {
+        if (evaluator == null) {
+            final double[] coefficients = new double[grades[grades.length - 1] + 1];
+            for (int i = 0; i < grades.length; i++) {
+                coefficients[grades[i]] = (double) numerators[i] / denominators[i];
+            }
+            // a SparsePolynomial2D is never constant, so neither its copy is
+            evaluator = (DoublePolynomial2D) DoublePolynomial2D.valueOf(coefficients);
+        }
+        return evaluator;
+    }
+
+    /**
+     * Package-private method to get the same function with arbitrary precision coefficients.
+     * The conversion is performed only once, then the same function is returned.
+     *
+     * @return
+     *          the function as a BasicPolynomial2D
+     */
+    BasicPolynomial2D toBasic() {
+        if (fallback == null) {
+            final Rational[] coefficients = new Rational[grades[grades.length - 1] + 1];
+            Arrays.fill(coefficients, Rational.ZERO);
+            for (int i = 0; i < grades.length; i++) {
+                coefficients[grades[i]] = Rational.valueOf(numerators[i], denominators[i]);
+            }
+            fallback = BasicPolynomial2D.valueOf(coefficients);
+        }
+        return fallback;
+    }
+
+    /**
+     * Package-private method to get the same function with all the coefficients stored.
+     *
+     * @return
+     *          the function as a RationalPolynomial2D, which is not canonical
+     */
+    RationalPolynomial2D toRational() {
+        final long[] n = new long[grades[grades.length - 1] + 1];
+        final long[] d = new long[n.length];
+        Arrays.fill(d, 1);
+        for (int i = 0; i < grades.length; i++) {
+            n[grades[i]] = numerators[i];
+            d[grades[i]] = denominators[i];
+        }
+        return new RationalPolynomial2D(n, d);
+    }
+
+    // package-private accessors used by the codec, the arrays are not copied so they must not be changed
+    int[] getGrades() {
+        return grades;
+    }
+
+    long[] getNumerators() {
+        return numerators;
+    }
+
+    long[] getDenominators() {
+        return denominators;
+    }
+
+    /**
+     * Package-private factory that creates a sparse polynomial given all its coefficients.
+     *
+     * @param numerators
+     *          the numerators of the reduced coefficients, where the i-th element is the one of x^i
+     * @param denominators
+     *          the denominators of the reduced coefficients, where the i-th element is the one of x^i
+     * @return
+     *          the SparsePolynomial2D having the coefficients which are not zero, which is not canonical
+     */
+    static SparsePolynomial2D of(final long[] numerators, final long[] denominators) {
+        final int terms = (int) Arrays.stream(numerators).filter(n -> n != 0).count();
+        final int[] g = new int[terms];
+        final long[] n = new long[terms];
+        final long[] d = new long[terms];
+        int term = 0;
+        for (int i = 0; i < numerators.length; i++) {
+            if (numerators[i] != 0) {
+                g[term] = i;
+                n[term] = numerators[i];
+                d[term] = denominators[i];
+                term++;
+            }
+        }
+        return new SparsePolynomial2D(g, n, d);
+    }
+
+    /**
+     * Package-private utility function that tells whether a polynomial should be stored as sparse.
+     *
+     * @param terms
+     *          the number of coefficients which are not zero
+     * @param grade
+     *          the grade of the polynomial
+     * @return
+     *          true if the polynomial should be a SparsePolynomial2D, false if it should be a RationalPolynomial2D
+     */
+    static boolean isSparse(final int terms, final int grade) {
+        return grade >= MIN_GRADE && (long) terms * FILL_RATIO <= grade + 1L;
+    }
+
+    // the double precision coefficients of the terms, computed only once
+    private double[] getValues() {
+        if (values == null) {
+            final double[] c = new double[grades.length];
+            for (int i = 0; i < c.length; i++) {
+                c[i] = (double) numerators[i] / denominators[i];
+            }
+            values = c;
+        }
+        return values;
+    }
+
+    // adds the terms of the two polynomials, merging the ones having the same grade
+    private Function2D plus(final SparsePolynomial2D other) {
+        return RationalPolynomial2D.exactly(() -> {
+            final int length = grades.length + other.grades.length;
+            final int[] g = new int[length];
+            final long[] n = new long[length];
+            final long[] d = new long[length];
+            int i = 0;
+            int j = 0;
+            int term = 0;
+            while (i < grades.length || j < other.grades.length) {
+                if (j == other.grades.length || (i < grades.length && grades[i] < other.grades[j])) {
+                    g[term] = grades[i];
+                    n[term] = numerators[i];
+                    d[term] = denominators[i];
+                    i++;
+                } else if (i == grades.length || other.grades[j] < grades[i]) {
+                    g[term] = other.grades[j];
+                    n[term] = other.numerators[j];
+                    d[term] = other.denominators[j];
+                    j++;
+                } else {
+                    g[term] = grades[i];
+                    n[term] = numerators[i];
+                    d[term] = denominators[i];
+                    RationalPolynomial2D.sum(n, d, term, other.numerators[j], other.denominators[j]);
+                    i++;
+                    j++;
+                }
+                term++;
+            }
+            return valueOf(g, n, d, term);
+        }, () -> toBasic().add(other.toBasic()));
+    }
+
+    // multiplies each term by each other term, then merges the products having the same grade
+    private Function2D times(final SparsePolynomial2D other) {
+        return RationalPolynomial2D.exactly(() -> {
+            final int length = grades.length * other.grades.length;
+            // each key holds the grade of a product in the high bits and its index in the low ones, to sort them by grade
+            final long[] keys = new long[length];
+            final long[] productNumerators = new long[length];
+            final long[] productDenominators = new long[length];
+            for (int i = 0; i < grades.length; i++) {
+                for (int j = 0; j < other.grades.length; j++) {
+                    final int k = i * other.grades.length + j;
+                    // cross reduction keeps the factors as small as possible before multiplying them
+                    final long g1 = RationalPolynomial2D.gcd(numerators[i], other.denominators[j]);
+                    final long g2 = RationalPolynomial2D.gcd(other.numerators[j], denominators[i]);
+                    keys[k] = ((long) Math.addExact(grades[i], other.grades[j]) << Integer.SIZE) | k;
+                    productNumerators[k] = Math.multiplyExact(numerators[i] / g1, other.numerators[j] / g2);
+                    productDenominators[k] = Math.multiplyExact(denominators[i] / g2, other.denominators[j] / g1);
+                }
+            }
+            Arrays.sort(keys);
+            final int[] g = new int[length];
+            final long[] n = new long[length];
+            final long[] d = new long[length];
+            int term = -1;
+            for (final long key : keys) {
+                final int grade = (int) (key >>> Integer.SIZE);
+                final int k = (int) key;
+                if (term < 0 || g[term] != grade) {
+                    term++;
+                    g[term] = grade;
+                    d[term] = 1;
+                }
+                RationalPolynomial2D.sum(n, d, term, productNumerators[k], productDenominators[k]);
+            }
+            return valueOf(g, n, d, term + 1);
+        }, () -> toBasic().multiply(other.toBasic()));
+    }
+
+    /*
+     * multiplies a function by the coefficient of the i-th term, kept as a fraction in a constant term
+     * so that it is not rounded to a double, unless the function has double precision coefficients
+     */
+    private Function2D timesCoefficient(final Function2D gx, final int i) {
+        if (DoublePolynomial2D.class.isInstance(gx)) {
+            return gx.multiply(new Constant((double) numerators[i] / denominators[i]));
+        }
+        return new SparsePolynomial2D(new int[] {0}, new long[] {numerators[i]}, new long[] {denominators[i]}).multiply(gx);
+    }
+
+    // raises a function to a not negative power by squaring
+    private static Function2D power(final Function2D gx, final int power) {
+        Function2D result = new Constant(1);
+        Function2D base = gx;
+        for (int p = power; p > 0; p >>= 1) {
+            if ((p & 1) == 1) {
+                result = result.multiply(base);
+            }
+            if (p > 1) {
+                base = base.multiply(base);
+            }
+        }
+        return result;
+    }
+
+    // raises a number to a not negative power by squaring
+    private static double power(final double x, final int power) {
+        double result = 1;
+        double base = x;
+        for (int p = power; p > 0; p >>= 1) {
+            if ((p & 1) == 1) {
+                result *= base;
+            }
+            base *= base;
+        }
+        return result;
+    }
+
+    private static int computeHash(final int[] grades, final long[] numerators, final long[] denominators) {
+        return 31 * (31 * Arrays.hashCode(grades) + Arrays.hashCode(numerators)) + Arrays.hashCode(denominators);
+    }
+
+    /*
+     * package-private factory that removes the terms with zero coefficient among the first ones, changing the arrays,
+     * and returns the corresponding canonical function, which is a RationalPolynomial2D if the polynomial is not sparse enough
+     */
+    static Function2D valueOf(final int[] grades, final long[] numerators, final long[] denominators, final int length) {
+        int terms = 0;
+        for (int i = 0; i < length; i++) {
+            RationalPolynomial2D.checkNotMinimum(numerators[i]);
+            if (numerators[i] != 0) {
+                grades[terms] = grades[i];
+                numerators[terms] = numerators[i];
+                denominators[terms] = denominators[i];
+                terms++;
+            }
+        }
+        if (terms == 0) {
+            return new Constant(0);
+        }
+        final int grade = grades[terms - 1];
+        if (grade == 0) {
+            return new Constant((double) numerators[0] / denominators[0]);
+        } else if (isSparse(terms, grade)) {
+            return Functions.canonical(new SparsePolynomial2D(Arrays.copyOf(grades, terms), Arrays.copyOf(numerators, terms),
+                                                             Arrays.copyOf(denominators, terms)));
+        } else {
+            final long[] n = new long[grade + 1];
+            final long[] d = new long[grade + 1];
+            Arrays.fill(d, 1);
+            for (int i = 0; i < terms; i++) {
+                n[grades[i]] = numerators[i];
+                d[grades[i]] = denominators[i];
+            }
+            return Functions.canonical(new RationalPolynomial2D(n, d));
+        }
+    }
+}
@@ -103,6 +103,8 @@ public enum Operation {
 
     /**
      * Performs the operation to the trajectory.
+     * Results are kept in the OperationCache, so performing again the operation on an equal trajectory
+     * returns the same function without computing it again.
      * 
      * @param trajectory
      *              the trajectory to be changed
@@ -110,6 +112,18 @@ public enum Operation {
      *              the new trajectory
      */
     public Function2D perform(final Function2D trajectory) {
+        return OperationCache.getInstance().perform(this, trajectory);
+    }
+
+    /**
+     * Package-private method that computes the operation on the trajectory bypassing the cache.
+     * 
+     * @param trajectory
+     *              the trajectory to be changed
+     * @return
+     *              the new trajectory
+     */
+    Function2D compute(final Function2D trajectory) {
         return operation.apply(trajectory);
     }
 
@@ -0,0 +1,115 @@
+package org.snailysis.model.entities.snail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.snailysis.model.entities.function.Function2D;
+import org.snailysis.model.utilities.Pair;
+
+/**
+ * Bounded cache of the trajectories computed by the operations.
+ * As functions are immutable, performing an operation already performed on an equal trajectory
+ * gives back the previously computed function instead of computing it again.
+ * When the cache is full, the least recently used trajectory is discarded.
+ * The class is not instantiable, as it is a Singleton.
+ */
+public final class OperationCache {
+
+    /**
+     * The maximum number of trajectories kept in the cache.
+     */
+    public static final int MAX_SIZE = 256;
+
+    private static final OperationCache SINGLETON = new OperationCache();
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // the access order of the map allows to discard the least recently used entry
+    private final Map<Pair<Function2D, Operation>, Function2D> cache = new LinkedHashMap<Pair<Function2D, Operation>, Function2D>(
+            MAX_SIZE, LOAD_FACTOR, true) {
+        private static final long serialVersionUID = 6436418315364432417L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Pair<Function2D, Operation>, Function2D> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+    private long hits;
+    private long misses;
+
+    /**
+     * Gets an univocal instance of the cache.
+     *
+     * @return
+     *          the instance of the cache
+     */
+    public static OperationCache getInstance() {
+        return SINGLETON;
+    }
+
+    private OperationCache() { }
+
+    /**
+     * Gets the result of an operation performed on a trajectory, computing it only if it is not cached.
+     *
+     * @param operation
+     *          the operation to be performed
+     * @param trajectory
+     *          the trajectory to be changed
+     * @return
+     *          the new trajectory
+     */
+    synchronized Function2D perform(final Operation operation, final Function2D trajectory) {
+        final Pair<Function2D, Operation> key = new Pair<>(trajectory, operation);
+        return Optional.ofNullable(cache.get(key))
+                       .map(f -> {
+                           hits++;
+                           return f;
+                       })
+                       .orElseGet(() -> {
+                           misses++;
+                           final Function2D result = operation.compute(trajectory);
+                           cache.put(key, result);
+                           return result;
+                       });
+    }
+
+    /**
+     * Gets how many times an operation result has been found in the cache.
+     *
+     * @return
+     *          the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how many times an operation result has been computed as it was not in the cache.
+     *
+     * @return
+     *          the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of trajectories currently kept in the cache.
+     *
+     * @return
+     *          the size of the cache
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all the trajectories from the cache and resets hits and misses counters.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
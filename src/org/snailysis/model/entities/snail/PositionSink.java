@@ -0,0 +1,19 @@
+package org.snailysis.model.entities.snail;
+
+/**
+ * Functional interface of a receiver of the snail's positions.
+ * It allows to get the coordinates of a position as primitive values, without creating a new pair each time.
+ */
+@FunctionalInterface
+public interface PositionSink {
+
+    /**
+     * Receives a position.
+     * 
+     * @param x
+     *          the x-coordinate of the position
+     * @param y
+     *          the y-coordinate of the position
+     */
+    void accept(double x, double y);
+}
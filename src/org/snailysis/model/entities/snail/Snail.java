@@ -1,5 +1,9 @@
 package org.snailysis.model.entities.snail;
 
+import java.util.List;
+
+import org.apache.commons.lang3.Range;
+
 import org.snailysis.model.utilities.Pair;
 
 /**
@@ -211,6 +215,15 @@ public interface Snail {
      */
     Pair<Double, Double> getCurrentPosition();
 
+    /**
+     * Gets the snail's current position without moving it, passing its coordinates to a sink
+     * instead of creating a new pair, so that it can be called many times per frame.
+     * 
+     * @param sink
+     *          the receiver of the position
+     */
+    void getCurrentPosition(PositionSink sink);
+
     /**
      * Gets the snail's position at the given x-coordinate without moving it.
      * 
@@ -221,6 +234,51 @@ public interface Snail {
      */
     double getPositionAt(double x);
 
+    /**
+     * Gets the snail's positions at many x-coordinates at once without moving it.
+     * The same array can be used both for the coordinates and the positions.
+     * 
+     * @param xs
+     *          the values of the coordinates
+     * @param out
+     *          the array where the y-coordinates of the positions are stored, in the same order of xs
+     * @param n
+     *          how many coordinates, starting from the first one, have to be evaluated
+     * @throws
+     *          IllegalArgumentException if n is negative or greater than the length of one of the arrays
+     */
+    void getPositionsAt(double[] xs, double[] out, int n);
+
+    /**
+     * Gets the x-coordinates of an interval where the snail's trajectory reaches a certain y-coordinate.
+     * 
+     * @param y
+     *          the value of the y-coordinate
+     * @param fromX
+     *          the lower bound of the interval
+     * @param toX
+     *          the upper bound of the interval
+     * @return
+     *          the x-coordinates found in ascending order
+     * @throws
+     *          IllegalArgumentException if the lower bound is greater than the upper one
+     */
+    List<Double> getXsAt(double y, double fromX, double toX);
+
+    /**
+     * Gets the range of the y-coordinates reached by the snail's trajectory in an interval without moving it.
+     * 
+     * @param fromX
+     *          the lower bound of the interval
+     * @param toX
+     *          the upper bound of the interval
+     * @return
+     *          the range from the lowest to the highest y-coordinate
+     * @throws
+     *          IllegalArgumentException if the lower bound is greater than the upper one
+     */
+    Range<Double> getRangeOver(double fromX, double toX);
+
     /**
      * Gets the snail's trajectory angle relative to the x axis.
      * 
@@ -250,6 +308,14 @@ public interface Snail {
      */
     Pair<Double, Double> moveAndGetPosition();
 
+    /**
+     * Moves the snail then passes its position to a sink, instead of creating a new pair.
+     * 
+     * @param sink
+     *          the receiver of the position after being moved
+     */
+    void moveAndGetPosition(PositionSink sink);
+
     /**
      * Performs an operation over the snail's trajectory.
      * It is guaranteed that the y-coordinate will be the same for the point in which is performed.
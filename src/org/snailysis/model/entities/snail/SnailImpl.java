@@ -1,9 +1,13 @@
 package org.snailysis.model.entities.snail;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.Range;
+
+import org.snailysis.model.utilities.CopyOnWriteObservers;
 import org.snailysis.model.utilities.Pair;
 import org.snailysis.model.entities.function.Function2D;
 import org.snailysis.model.entities.function.Functions;
@@ -20,41 +24,72 @@ import org.snailysis.model.utilities.exceptions.ExceptionUtilities;
  *
  * The resulting y is so that, given T(Tx, Ty) the translation vector and S(Sx, Sy) the scale values of the axis:
  *      (y - Ty) / Sy = f((x - Tx) / Sx) -> y = Sy * f((x - Tx) / Sx) + Ty
+ *
+ * Between two changes of the trajectory, of the scales or of the delta movement, the positions the snail will reach
+ * are fully determined, so once it keeps moving they are computed in advance, together with its angles,
+ * and kept in a ring buffer: reading the current position or angle of the snail then costs an array access.
  */
 public final class SnailImpl implements Snail {
 
     private static final String NOT_POSITIVE_VALUE_TEXT = "Not Positive Value";
     private static final String NOT_YET_ATTACHED = "Controller Not Yet Attached";
+    private static final String POINTS_TEXT = "Incorrect Number of Points";
 
     private static final double DEFAULT_X = 0;
-    private static final Pair<Double, Double> DEFAULT_TRANSLATION_VECTOR = new Pair<>(0.0, 0.0);
-
-    private final List<SnailObserver> observers;
+    private static final Function2D ZERO = Functions.lazy(Functions.constant(0));
+    private static final Pattern TERMS_SEPARATOR = Pattern.compile(" [+-] ");
+    private static final Pattern COEFFICIENT = Pattern.compile("[-/0-9]");
+    // the number of steps kept in advance, half of them are computed again each time half of them have been passed
+    private static final int LOOKAHEAD_STEPS = 64;
+    private static final int LOOKAHEAD_HALF = LOOKAHEAD_STEPS / 2;
+    // the steps to be moved after a change before using the lookahead, so that snails moved once per change never fill it
+    private static final int LOOKAHEAD_WARMUP = 2;
+
+    private final CopyOnWriteObservers<SnailObserver> observers = new CopyOnWriteObservers<>();
     private final Function2D initialTrajectory;
-    private final Pair<Double, Double> initialTranslationVector;
+    // the translation vectors are kept as primitive coordinates, so that moving the snail never allocates
+    private final double initialXTranslation;
+    private final double initialYTranslation;
     private final double width;
     private final double height;
 
     private Function2D currentTrajectory;
-    private Pair<Double, Double> currentTranslationVector;
+    private double xTranslation;
+    private double yTranslation;
     private double xPosition;
     private double xScale;
     private double yScale;
     private double delta;
+    // the texts of the trajectory, computed again only when the trajectory changes
+    private Function2D textTrajectory;
+    private String trajectoryText;
+    private String trajectoryCompactText;
+    // the lookahead, whose valid steps since the last change go from lookaheadFrom (included) to lookaheadTo (excluded)
+    private final double[] lookaheadYs = new double[LOOKAHEAD_STEPS];
+    private final double[] lookaheadAngles = new double[LOOKAHEAD_STEPS];
+    private final double[] lookaheadValues = new double[LOOKAHEAD_HALF];
+    private final double[] lookaheadSlopes = new double[LOOKAHEAD_HALF];
+    private int steps;
+    private int lookaheadFrom;
+    private int lookaheadTo;
+    // the x position the snail will have at the step lookaheadTo
+    private double lookaheadX;
 
     /**
-     * Private constructor to create a copy of the snail.
+     * Private constructor to create a copy of the snail, without observers.
      *
-     * @param observers
-     *          a list of snail's observers
      * @param initialTrajectory
      *          the initial trajectory of the snail (used when restarting)
-     * @param initialTranslationVector
-     *          the initial translation vector of the snail (used when restarting)
+     * @param initialXTranslation
+     *          the x-coordinate of the initial translation vector of the snail (used when restarting)
+     * @param initialYTranslation
+     *          the y-coordinate of the initial translation vector of the snail (used when restarting)
      * @param currentTrajectory
      *          the current trajectory of the snail
-     * @param currentTranslationVector
-     *          the current translation vector of the snail
+     * @param xTranslation
+     *          the x-coordinate of the current translation vector of the snail
+     * @param yTranslation
+     *          the y-coordinate of the current translation vector of the snail
      * @param height
      *          the height of the snail
      * @param width
@@ -68,16 +103,17 @@ public final class SnailImpl implements Snail {
      * @param delta
      *          the delta movement of the snail
      */
-    private SnailImpl(final List<SnailObserver> observers,
-                      final Function2D initialTrajectory, final Pair<Double, Double> initialTranslationVector,
-                      final Function2D currentTrajectory, final Pair<Double, Double> currentTranslationVector,
+    private SnailImpl(final Function2D initialTrajectory, final double initialXTranslation, final double initialYTranslation,
+                      final Function2D currentTrajectory, final double xTranslation, final double yTranslation,
                       final double xPosition, final double width, final double height,
                       final double xScale, final double yScale, final double delta) {
-        this.observers = new LinkedList<>(observers);
-        this.initialTrajectory = initialTrajectory.getCopy();
-        this.initialTranslationVector = initialTranslationVector.getCopy();
-        this.currentTrajectory = currentTrajectory.getCopy();
-        this.currentTranslationVector = currentTranslationVector.getCopy();
+        // trajectories and translation vectors are immutable, so they are shared with the copied snail
+        this.initialTrajectory = initialTrajectory;
+        this.initialXTranslation = initialXTranslation;
+        this.initialYTranslation = initialYTranslation;
+        this.currentTrajectory = currentTrajectory;
+        this.xTranslation = xTranslation;
+        this.yTranslation = yTranslation;
         this.xPosition = xPosition;
         this.width = width;
         this.height = height;
@@ -106,23 +142,25 @@ public final class SnailImpl implements Snail {
      */
     SnailImpl(final Function2D initialTrajectory, final double yTranslation, final double width,
             final double height, final double xScale, final double yScale, final double delta) {
-        this(new LinkedList<>(), initialTrajectory, addPair(DEFAULT_TRANSLATION_VECTOR, 0, yTranslation),
-                initialTrajectory, addPair(DEFAULT_TRANSLATION_VECTOR, 0, yTranslation),
+        this(Functions.lazy(initialTrajectory), 0, yTranslation,
+                Functions.lazy(initialTrajectory), 0, yTranslation,
                 DEFAULT_X, width, height, xScale, yScale, delta);
     }
 
     @Override
     public Snail getCopy() {
-        return new SnailImpl(new LinkedList<>(), initialTrajectory, initialTranslationVector,
-                             currentTrajectory, currentTranslationVector, xPosition,
+        return new SnailImpl(initialTrajectory, initialXTranslation, initialYTranslation,
+                             currentTrajectory, xTranslation, yTranslation, xPosition,
                              width, height, xScale, yScale, delta);
     }
 
     @Override
     public Snail restart() {
-        this.currentTrajectory = initialTrajectory.getCopy();
-        this.currentTranslationVector = initialTranslationVector.getCopy();
+        this.currentTrajectory = initialTrajectory;
+        this.xTranslation = initialXTranslation;
+        this.yTranslation = initialYTranslation;
         this.xPosition = DEFAULT_X;
+        clearLookahead();
         observers.forEach(o -> o.notifyObserver(SnailNotificationType.RESTART));
         return this;
     }
@@ -146,6 +184,7 @@ public final class SnailImpl implements Snail {
     public void setScaleX(final double xScale) {
         ExceptionUtilities.checkPositive(xScale, NOT_POSITIVE_VALUE_TEXT);
         this.xScale = xScale;
+        clearLookahead();
     }
 
     @Override
@@ -157,6 +196,7 @@ public final class SnailImpl implements Snail {
     public void setScaleY(final double yScale) {
         ExceptionUtilities.checkPositive(yScale, NOT_POSITIVE_VALUE_TEXT);
         this.yScale = yScale;
+        clearLookahead();
     }
 
     @Override
@@ -168,16 +208,17 @@ public final class SnailImpl implements Snail {
     public void setDelta(final double delta) {
         ExceptionUtilities.checkPositive(delta, NOT_POSITIVE_VALUE_TEXT);
         this.delta = delta;
+        clearLookahead();
     }
 
     @Override
     public double getCurrentX() {
-        return xPosition + currentTranslationVector.getFirst();
+        return xPosition + xTranslation;
     }
 
     @Override
     public double getCurrentY() {
-        return this.getPositionAt(getCurrentX());
+        return lookahead() ? lookaheadYs[steps % LOOKAHEAD_STEPS] : this.getPositionAt(getCurrentX());
     }
 
     @Override
@@ -185,16 +226,53 @@ public final class SnailImpl implements Snail {
         return new Pair<>(getCurrentX(), getCurrentY());
     }
 
+    @Override
+    public void getCurrentPosition(final PositionSink sink) {
+        sink.accept(getCurrentX(), getCurrentY());
+    }
+
     @Override
     public double getPositionAt(final double x) {
-        return evaluateFunction(currentTrajectory, x, currentTranslationVector.getFirst(),
-                                currentTranslationVector.getSecond(), xScale, yScale);
+        return evaluateFunction(currentTrajectory, x, xTranslation, yTranslation, xScale, yScale);
+    }
+
+    @Override
+    public void getPositionsAt(final double[] xs, final double[] out, final int n) {
+        ExceptionUtilities.throwExceptionIf(n < 0 || n > xs.length || n > out.length,
+                                            new IllegalArgumentException(POINTS_TEXT));
+        for (int i = 0; i < n; i++) {
+            out[i] = (xs[i] - xTranslation) / xScale;
+        }
+        currentTrajectory.evaluateAt(out, out, n);
+        for (int i = 0; i < n; i++) {
+            out[i] = yScale * out[i] + yTranslation;
+        }
+    }
+
+    @Override
+    public List<Double> getXsAt(final double y, final double fromX, final double toX) {
+        // solves (y - Ty) / Sy = f((x - Tx) / Sx) in the local coordinates, then goes back to the global ones
+        return currentTrajectory.solve((y - yTranslation) / yScale,
+                                       (fromX - xTranslation) / xScale, (toX - xTranslation) / xScale)
+                                .stream()
+                                .map(x -> x * xScale + xTranslation)
+                                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Range<Double> getRangeOver(final double fromX, final double toX) {
+        final Range<Double> range = currentTrajectory.rangeOver((fromX - xTranslation) / xScale, (toX - xTranslation) / xScale);
+        return Range.between(yScale * range.getMinimum() + yTranslation, yScale * range.getMaximum() + yTranslation);
     }
 
     @Override
     public double getAngleRad() {
-        // angle = arctan(f(x + delta) - f(x) / delta)
-        return Math.atan2(getPositionAt(getCurrentX() + delta) - getCurrentY(), delta);
+        if (lookahead()) {
+            return lookaheadAngles[steps % LOOKAHEAD_STEPS];
+        }
+        // y = Sy * f((x - Tx) / Sx) + Ty -> dy/dx = Sy * f'((x - Tx) / Sx) / Sx
+        return Math.atan2(yScale * currentTrajectory.slopeAt((getCurrentX() - xTranslation) / xScale),
+                          xScale);
     }
 
     @Override
@@ -205,6 +283,7 @@ public final class SnailImpl implements Snail {
     @Override
     public void move() {
         xPosition += delta;
+        steps++;
     }
 
     @Override
@@ -213,42 +292,38 @@ public final class SnailImpl implements Snail {
         return getCurrentPosition();
     }
 
+    @Override
+    public void moveAndGetPosition(final PositionSink sink) {
+        move();
+        getCurrentPosition(sink);
+    }
+
     @Override
     public void performOperation(final Operation operation) {
         // the integral of 0 is supposed to become x
         final Function2D newTrajectory = operation.perform(Optional.of(operation)
-                .filter(o -> o.equals(Operation.INTEGRATE) && currentTrajectory.equals(Functions.constant(0)))
-                .map(o -> Functions.constant(1))
+                .filter(o -> o.equals(Operation.INTEGRATE) && currentTrajectory.equals(ZERO))
+                .map(o -> Functions.lazy(Functions.constant(1)))
                 .orElse(currentTrajectory));
-        currentTranslationVector = new Pair<>(getCurrentX(), getCurrentY()
-                                                - evaluateFunction(newTrajectory, DEFAULT_X, 0, 0, xScale, yScale));
+        final double x = getCurrentX();
+        yTranslation = getCurrentY() - evaluateFunction(newTrajectory, DEFAULT_X, 0, 0, xScale, yScale);
+        xTranslation = x;
         currentTrajectory = newTrajectory;
         xPosition = DEFAULT_X;
+        clearLookahead();
         observers.forEach(o -> o.notifyObserver(SnailNotificationType.OPERATION_PERFORMED));
     }
 
     @Override
     public String getTrajectoryText() {
-        final String trajectory = currentTrajectory.toString();
-        return Optional.of(trajectory.split(" [+-] "))
-                       .map(v -> v[v.length - 1])
-                       .filter(t -> !t.contains("x"))
-                       .filter(t -> !t.equals("0"))
-                       .map(t -> trajectory.substring(0, trajectory.lastIndexOf(t)).concat("c"))
-                       .orElse(trajectory);
+        updateTexts();
+        return trajectoryText;
     }
 
     @Override
     public String getTrajectoryCompactText() {
-        /*
-         * gets the max grade of the function then:
-         * - if it is zero grade returns o(1)
-         * - otherwise returns the term plus o(grade)
-         */
-        return Optional.of(currentTrajectory.toString().split(" [+-] ")[0])
-                       .filter(s -> s.contains("x"))
-                       .map(s -> s + " + o(" + s.replaceAll("[-/0-9]", "") + ")")
-                       .orElse("o(1)");
+        updateTexts();
+        return trajectoryCompactText;
     }
 
     @Override
@@ -268,13 +343,73 @@ public final class SnailImpl implements Snail {
         observers.clear();
     }
 
+    private void updateTexts() {
+        if (textTrajectory != currentTrajectory) {
+            final String trajectory = currentTrajectory.toString();
+            final String[] terms = TERMS_SEPARATOR.split(trajectory);
+            // replaces the last term with c if it is a not null constant
+            trajectoryText = Optional.of(terms[terms.length - 1])
+                                     .filter(t -> !t.contains("x"))
+                                     .filter(t -> !t.equals("0"))
+                                     .map(t -> trajectory.substring(0, trajectory.lastIndexOf(t)).concat("c"))
+                                     .orElse(trajectory);
+            /*
+             * gets the max grade of the function then:
+             * - if it is zero grade returns o(1)
+             * - otherwise returns the term plus o(grade)
+             */
+            trajectoryCompactText = Optional.of(terms[0])
+                                            .filter(t -> t.contains("x"))
+                                            .map(t -> t + " + o(" + COEFFICIENT.matcher(t).replaceAll("") + ")")
+                                            .orElse("o(1)");
+            textTrajectory = currentTrajectory;
+        }
+    }
+
+    private void clearLookahead() {
+        steps = 0;
+        lookaheadFrom = 0;
+        lookaheadTo = 0;
+    }
+
+    // checks whether the current step can be read from the lookahead, filling it again if needed
+    private boolean lookahead() {
+        if (steps < LOOKAHEAD_WARMUP) {
+            return false;
+        }
+        if (steps < lookaheadFrom || steps >= lookaheadTo) {
+            // the lookahead is empty or the snail has moved beyond it, so it is filled starting from the current step
+            lookaheadFrom = steps;
+            lookaheadTo = steps;
+            lookaheadX = xPosition;
+            refillLookahead();
+            refillLookahead();
+        } else if (steps - lookaheadFrom >= LOOKAHEAD_HALF) {
+            refillLookahead();
+        }
+        return true;
+    }
+
+    // computes the next half of the lookahead in place of the half already passed, evaluating all its points at once
+    private void refillLookahead() {
+        for (int i = 0; i < LOOKAHEAD_HALF; i++) {
+            // the same operations performed by move() and getCurrentY(), so that the values are the same
+            lookaheadValues[i] = (lookaheadX + xTranslation - xTranslation) / xScale;
+            lookaheadX += delta;
+        }
+        currentTrajectory.differentiate().evaluateAt(lookaheadValues, lookaheadSlopes, LOOKAHEAD_HALF);
+        currentTrajectory.evaluateAt(lookaheadValues, lookaheadValues, LOOKAHEAD_HALF);
+        for (int i = 0; i < LOOKAHEAD_HALF; i++) {
+            final int slot = (lookaheadTo + i) % LOOKAHEAD_STEPS;
+            lookaheadYs[slot] = yScale * lookaheadValues[i] + yTranslation;
+            lookaheadAngles[slot] = Math.atan2(yScale * lookaheadSlopes[i], xScale);
+        }
+        lookaheadTo += LOOKAHEAD_HALF;
+        lookaheadFrom = Math.max(lookaheadFrom, lookaheadTo - LOOKAHEAD_STEPS);
+    }
+
     private double evaluateFunction(final Function2D trajectory, final double x, final double xTranslation,
             final double yTranslation, final double xScale, final double yScale) {
         return yScale * trajectory.evaluateAt((x - xTranslation) / xScale) + yTranslation;
     }
-
-    // static method as it is used inside a constructor call
-    private static Pair<Double, Double> addPair(final Pair<Double, Double> p, final double x, final double y) {
-        return new Pair<>(p.getFirst() + x, p.getSecond() + y);
-    }
 }
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang3.Range;
 import org.snailysis.model.Dimension;
 import org.snailysis.model.entities.wall.Wall;
 import org.snailysis.model.entities.wall.WallImpl;
@@ -39,9 +40,7 @@ public final class ObstaclesBuilder extends AbstractLevelBuilder<Double, Level>
     @Override
     public Stream<Wall> getElems() {
         return getRawElems().stream()
-                            .map(x -> new WallImpl(x, 
-                                                   solBld.computeSolutionFunctionAt(x), 
-                                                   computeWallHeight(x)));
+                            .map(this::createWall);
     }
 
     @Override
@@ -53,10 +52,29 @@ public final class ObstaclesBuilder extends AbstractLevelBuilder<Double, Level>
                                                                         .getObstacles()));
     }
 
-    private double computeWallHeight(final double wX) {
-        return ((Math.abs(solBld.computeSolutionFunctionAt(wX + Wall.WALL_WIDTH / 2) 
-                          - solBld.computeSolutionFunctionAt(wX - Wall.WALL_WIDTH / 2)) 
-                 + Dimension.SNAIL_HEIGHT.get()) * Dimension.WALL_GAP_PROPORTION.get());
+    private Wall createWall(final double wX) {
+        /*
+         * The gap is centered where the solution crosses the middle of the wall,
+         * and it has to contain every y-coordinate the solution reaches along the whole width of the wall
+         */
+        final Range<Double> range = Wall.widthRange(wX);
+        final double startY = solBld.computeSolutionFunctionAt(range.getMinimum());
+        final double gapY = solBld.computeSolutionFunctionAt(wX);
+        final double endY = solBld.computeSolutionFunctionAt(range.getMaximum());
+        return new WallImpl(wX, gapY, computeWallHeight(startY, gapY, endY,
+                                                        solBld.computeSolutionRangeOver(range.getMinimum(), range.getMaximum())));
+    }
+
+    private double computeWallHeight(final double startY, final double gapY, final double endY, final Range<Double> solutionRange) {
+        /*
+         * Where the solution is monotonic along the wall its range goes from one side to the other,
+         * otherwise the gap has to reach the farthest peak on both sides of its center
+         */
+        final boolean monotonic = solutionRange.getMinimum() == Math.min(startY, endY)
+                                  && solutionRange.getMaximum() == Math.max(startY, endY);
+        final double excursion = monotonic ? Math.abs(endY - startY)
+                                           : 2 * Math.max(gapY - solutionRange.getMinimum(), solutionRange.getMaximum() - gapY);
+        return (excursion + Dimension.SNAIL_HEIGHT.get()) * Dimension.WALL_GAP_PROPORTION.get();
     }
 
 }
@@ -1,9 +1,12 @@
 package org.snailysis.model.levels;
 
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang3.Range;
 import org.snailysis.model.utilities.Pair;
 import org.snailysis.model.ModelImpl;
 import org.snailysis.model.entities.snail.Operation;
@@ -71,4 +74,49 @@ public final class SolutionBuilder extends AbstractLevelBuilder<Pair<Double, Ope
         return copy.getPositionAt(x);
     }
 
+    /**
+     * Gets the range of the y-coordinates reached by the solution function in a given interval,
+     * merging the ranges of each trajectory the solution function follows in that interval.
+     * 
+     * @param from
+     *          the lower bound of the interval
+     * @param to
+     *          the upper bound of the interval
+     * @return
+     *          the range from the lowest to the highest y-coordinate of the solution function
+     * @throws
+     *          IllegalArgumentException if the lower bound is greater than the upper one
+     */
+    protected Range<Double> computeSolutionRangeOver(final double from, final double to) {
+        final Snail copy = ModelImpl.getInstance().getSnail().getCopy();
+        copy.restart();
+        final Iterator<Pair<Double, Operation>> steps = getRawElems().stream()
+                                                                     .filter(e -> e.getKey() < to)
+                                                                     .sorted((p1, p2) -> p1.getKey().compareTo(p2.getKey()))
+                                                                     .iterator();
+        Optional<Range<Double>> range = Optional.empty();
+        double start = from;
+        while (steps.hasNext()) {
+            final Pair<Double, Operation> step = steps.next();
+            /*
+             * Merges the range of the current trajectory until the next solution point, then performs the operation
+             */
+            if (step.getKey() > start) {
+                range = Optional.of(mergeRanges(range, copy.getRangeOver(start, step.getKey())));
+                start = step.getKey();
+            }
+            copy.setDelta(step.getKey() - copy.getCurrentX());
+            copy.move();
+            copy.performOperation(step.getValue());
+        }
+        return mergeRanges(range, copy.getRangeOver(start, to));
+    }
+
+    // gets the smallest range containing both the ranges
+    private static Range<Double> mergeRanges(final Optional<Range<Double>> first, final Range<Double> second) {
+        return first.map(r -> Range.between(Math.min(r.getMinimum(), second.getMinimum()),
+                                            Math.max(r.getMaximum(), second.getMaximum())))
+                    .orElse(second);
+    }
+
 }
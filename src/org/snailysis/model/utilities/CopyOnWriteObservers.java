@@ -0,0 +1,86 @@
+package org.snailysis.model.utilities;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe list of observers, optimized for being notified much more often than it is changed.
+ * Observers are kept in an array which is never modified: each change creates a new array, while notifications
+ * go through the array taken at their beginning with an indexed loop, so they never allocate nor lock anything
+ * and they are not affected by the observers added or removed in the meantime.
+ *
+ * @param <T>
+ *      the generic type of the observers
+ */
+public final class CopyOnWriteObservers<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private volatile Object[] observers = EMPTY;
+
+    /**
+     * Adds an observer at the end of the list, even if it is already in the list.
+     *
+     * @param observer
+     *          the observer to be added
+     */
+    public synchronized void add(final T observer) {
+        final Object[] added = Arrays.copyOf(observers, observers.length + 1);
+        added[observers.length] = observer;
+        observers = added;
+    }
+
+    /**
+     * Removes the first occurrence of an observer from the list.
+     *
+     * @param observer
+     *          the observer to be removed
+     * @return
+     *          true if the observer was in the list, false otherwise
+     */
+    public synchronized boolean remove(final T observer) {
+        final Object[] current = observers;
+        for (int i = 0; i < current.length; i++) {
+            if (Objects.equals(current[i], observer)) {
+                final Object[] removed = new Object[current.length - 1];
+                System.arraycopy(current, 0, removed, 0, i);
+                System.arraycopy(current, i + 1, removed, i, removed.length - i);
+                observers = removed;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every observer from the list.
+     */
+    public synchronized void clear() {
+        observers = EMPTY;
+    }
+
+    /**
+     * Checks whether there are no observers in the list.
+     *
+     * @return
+     *          true if the list is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return observers.length == 0;
+    }
+
+    /**
+     * Notifies each observer in the list, in the order they have been added.
+     *
+     * @param notification
+     *          the action performed on each observer
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super T> notification) {
+        final Object[] current = observers;
+        for (int i = 0; i < current.length; i++) {
+            notification.accept((T) current[i]);
+        }
+    }
+}
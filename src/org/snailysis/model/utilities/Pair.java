@@ -74,12 +74,13 @@ public final class Pair<L, R> implements Serializable {
 
     /**
      * Gets a copy of this pair.
+     * As the pair is immutable and its copy would share the same elements, the pair itself is returned.
      * 
      * @return
-     *          a new copy of this pair.
+     *          a copy of this pair.
      */
     public Pair<L, R> getCopy() {
-        return new Pair<>(getFirst(), getSecond());
+        return this;
     }
 
     @Override
@@ -6,10 +6,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 import org.snailysis.model.utilities.Pair;
 import org.snailysis.model.collisions.SnailImpact;
+import org.snailysis.model.entities.snail.PositionSink;
 import org.snailysis.model.entities.snail.Snail;
 import org.snailysis.model.entities.snail.SnailObserver;
 import org.snailysis.model.entities.snail.SnailObserver.SnailNotificationType;
@@ -28,6 +29,10 @@ public final class SnailControllerImpl implements SnailController {
     private final Controller controller;
     private final List<Pair<Double, Double>> previousPositions = new LinkedList<>();
     private final Map<SnailObserver.SnailNotificationType, Runnable> routines = new LinkedHashMap<>();
+    private final double[] nextXs = new double[NEXT_POINTS];
+    private final double[] nextYs = new double[NEXT_POINTS];
+    // the positions reached are kept only as the history to be drawn
+    private final PositionSink previousPositionsSink = (x, y) -> previousPositions.add(new Pair<>(x, y));
     private Pair<Double, Double> lastChangingPoint;
 
     /**
@@ -84,17 +89,19 @@ public final class SnailControllerImpl implements SnailController {
          * next positions calculated by the current trajectory
          */
         final Snail snail = controller.getModel().getSnail();
-        final List<Pair<Double, Double>> nextPositions = DoubleStream.iterate(
-                snail.getCurrentX() + snail.getWidth() + snail.getDelta() * NEXT_POINTS_DELTA_SCALE / 2,
-                x -> x + snail.getDelta() * NEXT_POINTS_DELTA_SCALE)
-                .mapToObj(x -> new Pair<>(x, snail.getPositionAt(x)))
-                .limit(NEXT_POINTS)
-                .collect(Collectors.toList());
+        final double firstX = snail.getCurrentX() + snail.getWidth() + snail.getDelta() * NEXT_POINTS_DELTA_SCALE / 2;
+        for (int i = 0; i < NEXT_POINTS; i++) {
+            nextXs[i] = firstX + i * snail.getDelta() * NEXT_POINTS_DELTA_SCALE;
+        }
+        snail.getPositionsAt(nextXs, nextYs, NEXT_POINTS);
+        final List<Pair<Double, Double>> nextPositions = IntStream.range(0, NEXT_POINTS)
+                                                                  .mapToObj(i -> new Pair<>(nextXs[i], nextYs[i]))
+                                                                  .collect(Collectors.toList());
         updateView(lastChangingPoint, nextPositions);
     }
 
     private void updateValues() {
-        previousPositions.add(controller.getModel().getSnail().moveAndGetPosition());
+        controller.getModel().getSnail().moveAndGetPosition(previousPositionsSink);
     }
 
     private void updateView(final Pair<Double, Double> changingPoint, final List<Pair<Double, Double>> nextPositions) {
@@ -2,16 +2,16 @@ package org.snailysis.scenes.gameplay;
 
 import org.snailysis.model.Model;
 import org.snailysis.model.collisions.SnailImpact;
+import org.snailysis.model.utilities.CopyOnWriteObservers;
 import org.snailysis.scenes.Controller;
 import org.snailysis.scenes.View;
 import org.snailysis.scenes.entities.snail.SnailControllerImpl;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javafx.application.Platform;
 
@@ -20,8 +20,9 @@ import javafx.application.Platform;
  */
 public final class GameLoopImpl extends Thread implements GameLoop {
     private static final long SLEEP_TIME = (long) 40.0;
-    private final Map<SnailImpact, List<Runnable>> impactObservers = new HashMap<>();
-    private final Map<Integer, List<Runnable>> controlsObservers = new HashMap<>();
+    // observers can be registered from any thread, while they are notified by the FX thread
+    private final Map<SnailImpact, CopyOnWriteObservers<Runnable>> impactObservers = new EnumMap<>(SnailImpact.class);
+    private final Map<Integer, CopyOnWriteObservers<Runnable>> controlsObservers = new ConcurrentHashMap<>();
     private final Controller controller;
     private final Model model;
     private final View view;
@@ -40,6 +41,8 @@ public final class GameLoopImpl extends Thread implements GameLoop {
         this.model = controller.getModel();
         this.view = controller.getView();
         this.iterations = 0;
+        // the map of impacts is filled once, so that it is never modified while being read
+        Stream.of(SnailImpact.values()).forEach(i -> impactObservers.put(i, new CopyOnWriteObservers<>()));
         this.setDaemon(true);
     }
     /**
@@ -52,8 +55,9 @@ public final class GameLoopImpl extends Thread implements GameLoop {
             Platform.runLater(() -> {
                 iterations++;
                 notifyCollisionsObservers(iterations);
-                if (!model.checkCollisions().equals(SnailImpact.NOONE)) {
-                    notifyObservers(model.checkCollisions());
+                final SnailImpact impact = model.checkCollisions();
+                if (!impact.equals(SnailImpact.NOONE)) {
+                    notifyObservers(impact);
                     finish();
                 } else {
                     notifyObservers(SnailImpact.NOONE);
@@ -78,27 +82,18 @@ public final class GameLoopImpl extends Thread implements GameLoop {
     }
     @Override
     public synchronized void finish() {
-        this.impactObservers.clear();
-        controlsObservers.values().stream()
-                                  .flatMap(l -> l.stream())
-                                  .forEach(Runnable::run);
+        this.impactObservers.values().forEach(CopyOnWriteObservers::clear);
+        controlsObservers.values().forEach(o -> o.forEach(Runnable::run));
         this.running = false;
     }
     @Override
     public void registerCollisionsObserver(final SnailImpact impact, final Runnable observer) {
-        final List<Runnable> oneObserver = new LinkedList<>(Arrays.asList(observer));
-        this.impactObservers.merge(impact, oneObserver, (v, v1) -> {
-            v.addAll(v1); 
-            return v; 
-        });
+        this.impactObservers.get(impact).add(observer);
     }
     @Override
     public void registerControlsObserver(final long time, final Runnable observer) {
-        final List<Runnable> oneObserver = new LinkedList<>(Arrays.asList(observer));
-        this.controlsObservers.merge((int) (time / SLEEP_TIME + iterations), oneObserver, (v, v1) -> {
-            v.addAll(v1); 
-            return v; 
-        });
+        this.controlsObservers.computeIfAbsent((int) (time / SLEEP_TIME + iterations), i -> new CopyOnWriteObservers<>())
+                              .add(observer);
     }
     @Override
     public boolean isControlsObserversEmpty() {
@@ -106,14 +101,14 @@ public final class GameLoopImpl extends Thread implements GameLoop {
     }
     @Override
     public boolean isCollisionsObserversEmpty() {
-        return impactObservers.isEmpty();
+        return impactObservers.values().stream().allMatch(CopyOnWriteObservers::isEmpty);
     }
 
     private void notifyObservers(final SnailImpact impact) {
-        this.impactObservers.getOrDefault(impact, new LinkedList<>()).forEach(Runnable::run);
+        this.impactObservers.get(impact).forEach(Runnable::run);
     }
 
     private void notifyCollisionsObservers(final int iteration) {
-        this.controlsObservers.getOrDefault(iteration, new LinkedList<>()).forEach(Runnable::run);
+        Optional.ofNullable(this.controlsObservers.get(iteration)).ifPresent(o -> o.forEach(Runnable::run));
     }
 }
@@ -0,0 +1,207 @@
+package org.snailysis.test.collisions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.snailysis.model.Dimension;
+import org.snailysis.model.Model;
+import org.snailysis.model.ModelImpl;
+import org.snailysis.model.collisions.CheckCollisionImpl;
+import org.snailysis.model.collisions.CheckCollisions;
+import org.snailysis.model.collisions.ObstacleGeometry;
+import org.snailysis.model.collisions.SnailImpact;
+import org.snailysis.model.entities.snail.InitialTrajectory;
+import org.snailysis.model.entities.snail.Operation;
+import org.snailysis.model.entities.snail.Snail;
+import org.snailysis.model.entities.snail.SnailBuilder;
+import org.snailysis.model.entities.wall.Wall;
+import org.snailysis.model.entities.wall.WallImpl;
+import org.snailysis.model.levels.Level;
+import org.snailysis.model.levels.ObstaclesBuilder;
+import org.snailysis.model.levels.OperationsBuilder;
+import org.snailysis.model.levels.SolutionBuilder;
+import org.snailysis.model.utilities.Pair;
+
+/**
+ * Test class for the collisions of the snail.
+ */
+public class TestCollisions {
+
+    private static final String IMPACT_ERROR = "Impact Error";
+    private static final String CHECKS_ERROR = "Checks Error";
+    private static final String CURSOR_ERROR = "Cursor Error";
+
+    private static final double WIDTH = Dimension.PLANE_WIDTH.get();
+    private static final double HEIGHT = Dimension.PLANE_HEIGHT.get();
+    private static final List<Operation> OPERATIONS = Arrays.asList(Operation.NEGATIVE_Y, Operation.HALF_Y,
+                                                                    Operation.TWO_X, Operation.DIFFERENTIATE);
+    private static final List<Double> WALLS = Arrays.asList(300.0, 600.0, 900.0);
+    private static final long SEED = 42;
+    private static final int PLAYS = 10;
+    private static final int OPERATION_ODDS = 40;
+    private static final int MAX_TICKS = 1000;
+
+    /**
+     * Test that a snail stepping over a wall between two checks hits it, while checking each position alone does not.
+     */
+    @Test
+    public void sweptCollisionTest() {
+        // CHECKSTYLE: MagicNumber OFF
+        // a wall from x = 177.5 to x = 222.5 whose gap is far below the snail, which stays at y = 310
+        final Set<Wall> obstacles = Collections.singleton(new WallImpl(200, 100, 60));
+        final Snail snail = new SnailBuilder().setInitialTrajectory(InitialTrajectory.CONSTANT).setDelta(100).build();
+        final CheckCollisions swept = new CheckCollisionImpl();
+        // MOVING up to x = 100 -> the snail is before the wall
+        snail.move();
+        assertEquals(IMPACT_ERROR, SnailImpact.NOONE, swept.computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        assertEquals(IMPACT_ERROR, SnailImpact.NOONE, new CheckCollisionImpl().computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        // MOVING up to x = 250 -> the snail is after the wall, which it has stepped over
+        snail.setDelta(150);
+        snail.move();
+        assertEquals(IMPACT_ERROR, SnailImpact.NOONE, new CheckCollisionImpl().computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        assertEquals(IMPACT_ERROR, SnailImpact.WALL, swept.computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        // CHECKING again the same position -> same impact
+        assertEquals(IMPACT_ERROR, SnailImpact.WALL, swept.computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        // MOVING up to x = 400 -> the wall is behind the path swept since the previous check
+        snail.move();
+        assertEquals(IMPACT_ERROR, SnailImpact.NOONE, swept.computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        // RESTARTING and stepping over the wall again -> the path from before restarting is not swept
+        snail.restart();
+        snail.setDelta(250);
+        snail.move();
+        assertEquals(IMPACT_ERROR, SnailImpact.NOONE, swept.computeCollision(snail, obstacles, WIDTH, HEIGHT));
+        // CHECKSTYLE: MagicNumber ON
+    }
+
+    /**
+     * Test that the walls near a position found moving the cursor are the ones found by binary search,
+     * whether the position moves forward, backwards or jumps over many walls.
+     */
+    @Test
+    public void geometryCursorTest() {
+        // CHECKSTYLE: MagicNumber OFF
+        final ObstacleGeometry geometry = new ObstacleGeometry(IntStream.rangeClosed(1, 20)
+                                                                        .mapToObj(i -> new WallImpl(i * 100, 300, 60))
+                                                                        .collect(Collectors.toSet()), HEIGHT);
+        assertEquals(CURSOR_ERROR, 0, geometry.firstReaching(-100));
+        assertEquals(CURSOR_ERROR, geometry.size(), geometry.firstReaching(2200));
+        // MOVING forward and backwards by less than a wall
+        int cursor = 0;
+        for (double x = -100; x <= 2200; x += 10) {
+            cursor = checkCursor(geometry, x, cursor);
+        }
+        for (double x = 2200; x >= -100; x -= 10) {
+            cursor = checkCursor(geometry, x, cursor);
+        }
+        // JUMPING over more walls than the cursor moves through
+        for (final double x : new double[] {0, 1500, 1550, 200, 2100, 2150, -50, 950, 1000, 1800}) {
+            cursor = checkCursor(geometry, x, cursor);
+        }
+        // STARTING from cursors out of the walls
+        for (final int outside : new int[] {-1, geometry.size(), geometry.size() + 1}) {
+            assertEquals(CURSOR_ERROR, geometry.firstReaching(1000), geometry.firstReaching(1000, outside));
+        }
+        // CHECKSTYLE: MagicNumber ON
+    }
+
+    /**
+     * Test that the model, which skips the checks until the predicted impact, gets the same first impact
+     * at the same tick of a checker called at every tick, while playing each trajectory with random operations.
+     */
+    @Test
+    public void predictedCollisionsTest() {
+        final Model model = ModelImpl.getInstance();
+        final Random random = new Random(SEED);
+        for (final InitialTrajectory trajectory : InitialTrajectory.values()) {
+            model.setSnail(trajectory);
+            model.selectLevel(createLevel(trajectory));
+            try {
+                for (int i = 0; i < PLAYS; i++) {
+                    play(model, random);
+                }
+            } finally {
+                model.endLevel();
+            }
+        }
+    }
+
+    /**
+     * Test that the model computes the collisions once per position, and again when the trajectory changes.
+     */
+    @Test
+    public void collisionsMemoTest() {
+        final Model model = ModelImpl.getInstance();
+        model.setSnail(InitialTrajectory.POSITIVE_LINEAR_X);
+        final Snail snail = model.getSnail();
+        // CHECKING twice the starting position -> computed only once
+        final long checks = model.getCollisionChecks();
+        final long hits = model.getCollisionHits();
+        model.checkCollisions();
+        model.checkCollisions();
+        assertEquals(CHECKS_ERROR, checks + 1, model.getCollisionChecks());
+        assertEquals(CHECKS_ERROR, hits + 1, model.getCollisionHits());
+        // RESTARTING in the same position -> computed again
+        snail.restart();
+        model.checkCollisions();
+        assertEquals(CHECKS_ERROR, checks + 2, model.getCollisionChecks());
+        // MOVING and performing an operation in the same position -> computed again
+        snail.move();
+        model.checkCollisions();
+        snail.performOperation(Operation.NEGATIVE_Y);
+        model.checkCollisions();
+        assertEquals(CHECKS_ERROR, checks + 4, model.getCollisionChecks());
+        assertEquals(CHECKS_ERROR, hits + 1, model.getCollisionHits());
+    }
+
+    // checks that the cursor moved to a position finds the same wall of the binary search, then returns it
+    private static int checkCursor(final ObstacleGeometry geometry, final double x, final int cursor) {
+        final int wall = geometry.firstReaching(x, cursor);
+        assertEquals(CURSOR_ERROR + " at x = " + x, geometry.firstReaching(x), wall);
+        return wall;
+    }
+
+    // creates a level whose walls are placed along a solution made of the operations
+    private static Level createLevel(final InitialTrajectory trajectory) {
+        final OperationsBuilder opBld = Level.startBuildProcess(trajectory);
+        opBld.addAll(OPERATIONS);
+        final SolutionBuilder solBld = opBld.build();
+        for (int i = 0; i < WALLS.size(); i++) {
+            solBld.add(new Pair<>(WALLS.get(i) + Wall.WALL_WIDTH, OPERATIONS.get(i)));
+        }
+        final ObstaclesBuilder obsBld = solBld.build();
+        obsBld.addAll(WALLS);
+        return obsBld.build();
+    }
+
+    // plays the current level from the start, performing an operation every now and then on both the snails
+    private static void play(final Model model, final Random random) {
+        final Snail snail = model.getSnail().restart();
+        final Snail copy = snail.getCopy();
+        final CheckCollisions checker = new CheckCollisionImpl();
+        final Set<Wall> obstacles = model.getCurrentLevel().getObstacles();
+        for (int tick = 0; tick < MAX_TICKS; tick++) {
+            if (random.nextInt(OPERATION_ODDS) == 0) {
+                final Operation operation = OPERATIONS.get(random.nextInt(OPERATIONS.size()));
+                snail.performOperation(operation);
+                copy.performOperation(operation);
+            }
+            final SnailImpact expected = checker.computeCollision(copy, obstacles, WIDTH, HEIGHT);
+            assertEquals(IMPACT_ERROR + " at tick " + tick, expected, model.checkCollisions());
+            if (!expected.equals(SnailImpact.NOONE)) {
+                return;
+            }
+            snail.move();
+            copy.move();
+        }
+        fail(IMPACT_ERROR);
+    }
+}
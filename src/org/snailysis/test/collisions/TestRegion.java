@@ -0,0 +1,54 @@
+package org.snailysis.test.collisions;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.snailysis.model.collisions.RectangularRegion;
+import org.snailysis.model.collisions.Region;
+
+/**
+ * Test class for the regions.
+ */
+public class TestRegion {
+
+    private static final String COLLISION_ERROR = "Collision Error";
+    private static final String CONTAINMENT_ERROR = "Containment Error";
+
+    /**
+     * Test collisions and containment of rectangular regions, both before and after rotating them.
+     */
+    @Test
+    public void rectangularRegionTest() {
+        // CHECKSTYLE: MagicNumber OFF
+        final RectangularRegion snail = new RectangularRegion(0, 0, 10, 2);
+        final Region wall = new RectangularRegion(5, 0, 2, 2);
+        final Region area = new RectangularRegion(-1, -10, 20, 20);
+        assertTrue(COLLISION_ERROR, snail.collide(wall));
+        assertTrue(COLLISION_ERROR, wall.collide(snail));
+        assertTrue(COLLISION_ERROR, snail.collide(new RectangularRegion(10, 2, 1, 1))); // touching corners
+        assertFalse(COLLISION_ERROR, snail.collide(new RectangularRegion(11, 0, 1, 1)));
+        assertTrue(CONTAINMENT_ERROR, area.contains(snail));
+        assertFalse(CONTAINMENT_ERROR, snail.contains(area));
+        /*
+         * ROTATING the snail upwards around its bottom-left corner: it now goes from (-2, -8) to (0, 2)
+         */
+        snail.rotate(90);
+        assertFalse(COLLISION_ERROR, snail.collide(wall));
+        assertTrue(COLLISION_ERROR, snail.collide(new RectangularRegion(-1, -7, 0.5, 0.5)));
+        assertFalse(CONTAINMENT_ERROR, area.contains(snail));
+        /*
+         * MOVING the snail discards its rotation
+         */
+        snail.setBounds(0, 0, 10, 2);
+        assertTrue(COLLISION_ERROR, snail.collide(wall));
+        assertTrue(CONTAINMENT_ERROR, area.contains(snail));
+        /*
+         * ROTATING the snail by 45 degrees: its bounding box would hit the wall, while the snail does not
+         */
+        snail.rotate(45);
+        assertFalse(COLLISION_ERROR, snail.collide(new RectangularRegion(0, -6, 2, 2)));
+        assertTrue(COLLISION_ERROR, snail.collide(new RectangularRegion(5, -6, 1, 1)));
+        // CHECKSTYLE: MagicNumber ON
+    }
+}
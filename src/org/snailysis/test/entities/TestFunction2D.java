@@ -1,12 +1,26 @@
 package org.snailysis.test.entities;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.junit.jupiter.api.Test;
 import org.snailysis.model.entities.function.Function2D;
+import org.snailysis.model.entities.function.FunctionCodec;
 import org.snailysis.model.entities.function.Functions;
 import org.snailysis.model.entities.function.Polynomial2D;
+import org.snailysis.model.entities.function.RationalPolynomial2D;
+import org.snailysis.model.entities.function.SparsePolynomial2D;
 
 class TestFunction2D {
 
@@ -16,11 +30,32 @@ class TestFunction2D {
 
     private static final double ERROR = 0.01;
     private static final String NOT_POSITIVE_GRADE_TEXT = "Not Positive Values are not accepted";
+    private static final String ZERO_TEXT = "Zero Values are not accepted";
+
+    // every test is run on each representation of the polynomial functions
+    @FunctionalInterface
+    private interface PolynomialFactory {
+        Polynomial2D create(double coefficient, int grade);
+    }
+
+    /*
+     * runs a test with each factory of monomials: the exact ones with long fractions, which become sparse
+     * for high grades, the double precision ones and the arbitrary precision ones
+     */
+    private static void forEachRepresentation(final Consumer<PolynomialFactory> test) {
+        test.accept(Functions::polynomial);
+        test.accept(Functions::primitivePolynomial);
+        test.accept(Functions::arbitraryPrecisionPolynomial);
+    }
 
     @Test
     public void basicTest() {
+        forEachRepresentation(this::basicTest);
+    }
+
+    private void basicTest(final PolynomialFactory polynomial) {
         // CREATING functions -> f(x) = 0 && g(x) = 3x² -5x + 2
-        final Function2D gx = Functions.polynomial(3, 2).add(1, 1).translateOnX(-1);
+        final Function2D gx = polynomial.create(3, 2).add(1, 1).translateOnX(-1);
         Function2D fx = Functions.constant(3.0 / 2);
         assertEquals(FUNCTION_ERROR, "3x² - 5x + 2", gx.toString());
         assertEquals(FUNCTION_ERROR, "3/2", fx.toString());
@@ -61,8 +96,12 @@ class TestFunction2D {
 
     @Test
     public void opposeAndDilateTest() {
+        forEachRepresentation(this::opposeAndDilateTest);
+    }
+
+    private void opposeAndDilateTest(final PolynomialFactory polynomial) {
         // CREATING function -> f(x) = x + 1
-        Function2D fx = Functions.constant(1).add(Functions.polynomial(1, 1));
+        Function2D fx = Functions.constant(1).add(polynomial.create(1, 1));
         assertEquals(FUNCTION_ERROR, "x + 1", fx.toString());
         // DILATING Y of 2 -> f(x) = 2x + 2
         fx = fx.dilateOnY(2);
@@ -80,8 +119,12 @@ class TestFunction2D {
 
     @Test
     public void multiplyAndPowerTest() {
+        forEachRepresentation(this::multiplyAndPowerTest);
+    }
+
+    private void multiplyAndPowerTest(final PolynomialFactory polynomial) {
         // CREATING functions -> f(x) = 2 && g(x) = x + 2
-        final Function2D gx = Functions.polynomial(1, 1).translateOnY(2);
+        final Function2D gx = polynomial.create(1, 1).translateOnY(2);
         Function2D fx = Functions.constant(2);
         // MULTIPLYING by 1/2x then ADDING 1 -> f(x) = x
         fx = ((Polynomial2D) fx).multiply(0.5, 1);
@@ -108,13 +151,27 @@ class TestFunction2D {
         } catch (IllegalArgumentException e) {
             assertEquals(EXCEPTION_ERROR, NOT_POSITIVE_GRADE_TEXT, e.getMessage());
         }
+        // POWERING Y by 30 -> f(x) = (1/3x + 1/7)^30, whose coefficients do not fit in long fractions
+        // CHECKSTYLE: MagicNumber OFF
+        fx = polynomial.create(1.0 / 3, 1).translateOnY(1.0 / 7).powerOnY(30);
+        assertEquals(EVALUATION_ERROR, 1, fx.evaluateAt(1) / Math.pow(10.0 / 21, 30), ERROR);
+        assertEquals(EVALUATION_ERROR, 1, fx.differentiate().evaluateAt(1) / (10 * Math.pow(10.0 / 21, 29)), ERROR);
+        // CHECKSTYLE: MagicNumber ON
     }
 
     @Test
     public void differentiationAndIntegrationTest() {
+        forEachRepresentation(this::differentiationAndIntegrationTest);
+    }
+
+    private void differentiationAndIntegrationTest(final PolynomialFactory polynomial) {
         // CREATING function -> f(x) = 3x² + 2
-        Function2D fx = Functions.polynomial(3, 2);
+        Function2D fx = polynomial.create(3, 2);
         fx = fx.translateOnY(2);
+        // SLOPE -> f'(x) = 6x
+        assertEquals(EVALUATION_ERROR, 0, fx.slopeAt(0), ERROR);
+        assertEquals(EVALUATION_ERROR, -12, fx.slopeAt(-2), ERROR);
+        assertEquals(EVALUATION_ERROR, 0, Functions.constant(3).slopeAt(1), ERROR);
         // DIFFERENTIATING -> f(x) = 6x
         fx = fx.differentiate();
         assertEquals(FUNCTION_ERROR, "6x", fx.toString());
@@ -128,10 +185,10 @@ class TestFunction2D {
         fx = fx.integrate();
         assertEquals(FUNCTION_ERROR, "0", fx.toString());
         // FUNCTION -> f(x) = x
-        fx = Functions.polynomial(1, 1);
+        fx = polynomial.create(1, 1);
         assertEquals(FUNCTION_ERROR, "x", fx.toString());
         // ADDING 3x² + 3x + 2 -> f(x) = 3x² + 4x + 2
-        fx = fx.add(Functions.polynomial(3, 2).add(3, 1).translateOnY(2));
+        fx = fx.add(polynomial.create(3, 2).add(3, 1).translateOnY(2));
         assertEquals(FUNCTION_ERROR, "3x² + 4x + 2", fx.toString());
         // INTEGRATING -> f(x) = x³ + 3x² + 2x
         fx = fx.integrate();
@@ -140,4 +197,215 @@ class TestFunction2D {
         fx = fx.integrate();
         assertEquals(FUNCTION_ERROR, "1/4x4 + 2/3x³ + x²", fx.toString());
     }
+
+    @Test
+    public void batchEvaluationTest() {
+        forEachRepresentation(this::batchEvaluationTest);
+    }
+
+    private void batchEvaluationTest(final PolynomialFactory polynomial) {
+        // CREATING functions -> f(x) = x³ - 2x + 1/2 && g(x) = 3
+        final Function2D fx = polynomial.create(1, 3).add(-2, 1).translateOnY(0.5);
+        final Function2D gx = Functions.constant(3);
+        final double[] xs = { -2, -0.5, 0, 1, 3 };
+        final double[] out = new double[xs.length];
+        // EVALUATING all points but the last one
+        fx.evaluateAt(xs, out, xs.length - 1);
+        for (int i = 0; i < xs.length - 1; i++) {
+            assertEquals(EVALUATION_ERROR, fx.evaluateAt(xs[i]), out[i], ERROR);
+        }
+        assertEquals(EVALUATION_ERROR, 0, out[xs.length - 1], ERROR);
+        gx.evaluateAt(xs, out, xs.length);
+        for (final double y : out) {
+            assertEquals(EVALUATION_ERROR, 3, y, ERROR);
+        }
+        // EVALUATING in place
+        final double[] points = xs.clone();
+        fx.evaluateAt(points, points, points.length);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(EVALUATION_ERROR, fx.evaluateAt(xs[i]), points[i], ERROR);
+        }
+        // TRY EVALUATING more points than available -> Exception
+        try {
+            fx.evaluateAt(xs, new double[1], 2);
+            fail(EXCEPTION_ERROR);
+        } catch (IllegalArgumentException e) {
+            assertEquals(EXCEPTION_ERROR, "Incorrect Number of Points", e.getMessage());
+        }
+    }
+
+    @Test
+    public void solveTest() {
+        forEachRepresentation(this::solveTest);
+    }
+
+    private void solveTest(final PolynomialFactory polynomial) {
+        // CREATING function -> f(x) = x³ - 3x
+        final Function2D fx = polynomial.create(1, 3).add(-3, 1);
+        // SOLVING f(x) = 0 -> x = -√3, 0, √3
+        List<Double> xs = fx.solve(0, -2, 2);
+        assertEquals(EVALUATION_ERROR, 3, xs.size());
+        assertEquals(EVALUATION_ERROR, -Math.sqrt(3), xs.get(0), ERROR);
+        assertEquals(EVALUATION_ERROR, 0, xs.get(1), ERROR);
+        assertEquals(EVALUATION_ERROR, Math.sqrt(3), xs.get(2), ERROR);
+        // SOLVING f(x) = 2 in [0, 3] -> x = 2, the tangent point in x = -1 is out of the interval
+        xs = fx.solve(2, 0, 3);
+        assertEquals(EVALUATION_ERROR, 1, xs.size());
+        assertEquals(EVALUATION_ERROR, 2, xs.get(0), ERROR);
+        // RANGE in [-2, 0] -> [-2, 2], where the maximum is in x = -1
+        assertEquals(EVALUATION_ERROR, -2, fx.rangeOver(-2, 0).getMinimum(), ERROR);
+        assertEquals(EVALUATION_ERROR, 2, fx.rangeOver(-2, 0).getMaximum(), ERROR);
+        // RANGE in [0, 1] -> [-2, 0], where the minimum is in x = 1
+        assertEquals(EVALUATION_ERROR, -2, fx.rangeOver(0, 1).getMinimum(), ERROR);
+        assertEquals(EVALUATION_ERROR, 0, fx.rangeOver(0, 1).getMaximum(), ERROR);
+        // SOLVING a constant -> no points
+        assertEquals(EVALUATION_ERROR, 0, Functions.constant(1).solve(1, 0, 1).size());
+        // TRY SOLVING on an inverted interval -> Exception
+        try {
+            fx.solve(0, 1, -1);
+            fail(EXCEPTION_ERROR);
+        } catch (IllegalArgumentException e) {
+            assertEquals(EXCEPTION_ERROR, "Incorrect Interval", e.getMessage());
+        }
+    }
+
+    @Test
+    public void lazyTest() {
+        forEachRepresentation(this::lazyTest);
+    }
+
+    private void lazyTest(final PolynomialFactory polynomial) {
+        // CREATING function -> f(x) = x³ - 3x
+        final Function2D fx = polynomial.create(1, 3).add(-3, 1);
+        final Function2D lazy = Functions.lazy(fx);
+        assertSame(FUNCTION_ERROR, lazy, Functions.lazy(lazy));
+        // SIMPLIFYING -(-f(x)) = f(x) and d/dx(Sf(x)dx) = f(x)
+        assertSame(FUNCTION_ERROR, lazy, lazy.opposeOnY().opposeOnY());
+        assertSame(FUNCTION_ERROR, lazy, lazy.integrate().differentiate());
+        // CHANGING both functions in the same way -> same function
+        // CHECKSTYLE: MagicNumber OFF
+        final Function2D eager = fx.translateOnX(2).dilateOnX(0.5).powerOnY(2).dilateOnY(3).translateOnY(-1)
+                                   .differentiate().integrate();
+        final Function2D changed = lazy.translateOnX(2).dilateOnX(0.5).powerOnY(2).dilateOnY(3).translateOnY(-1)
+                                       .differentiate().integrate();
+        for (double x = -2; x <= 2; x += 0.5) {
+            assertEquals(EVALUATION_ERROR, eager.evaluateAt(x), changed.evaluateAt(x), ERROR);
+            assertEquals(EVALUATION_ERROR, eager.slopeAt(x), changed.slopeAt(x), ERROR);
+        }
+        // CHECKSTYLE: MagicNumber ON
+        assertEquals(FUNCTION_ERROR, eager.toString(), changed.toString());
+        // COMPOSING with a constant -> constant
+        assertEquals(FUNCTION_ERROR, "-2", lazy.compose(Functions.constant(1)).toString());
+    }
+
+    @Test
+    public void sparseTest() {
+        // CHECKSTYLE: MagicNumber OFF
+        // CREATING function -> f(x) = x³ - 3x
+        final Function2D fx = Functions.polynomial(1, 3).add(-3, 1);
+        final Function2D primitive = Functions.primitivePolynomial(1, 3).add(-3, 1);
+        // SQUARING x four times -> f(x16) = x48 - 3x16, stored as sparse
+        Function2D gx = fx;
+        Function2D expected = primitive;
+        for (int i = 0; i < 4; i++) {
+            gx = gx.powerOnX(2);
+            expected = expected.powerOnX(2);
+        }
+        assertTrue(FUNCTION_ERROR, gx instanceof SparsePolynomial2D);
+        assertEquals(FUNCTION_ERROR, "x48 - 3x16", gx.toString());
+        assertEquals(FUNCTION_ERROR, "48x47 - 48x15", gx.differentiate().toString());
+        assertEquals(FUNCTION_ERROR, gx, gx.integrate().differentiate());
+        for (double x = -1.05; x <= 1.05; x += 0.15) {
+            assertEquals(EVALUATION_ERROR, expected.evaluateAt(x), gx.evaluateAt(x), ERROR);
+        }
+        // SQUARING f(x16) -> x96 - 6x64 + 9x32, composed by squaring the terms
+        assertEquals(FUNCTION_ERROR, "x96 - 6x64 + 9x32", gx.powerOnY(2).toString());
+        // ADDING enough terms -> dense again
+        final Function2D terms = Functions.polynomial(1, 40).add(1, 32).add(1, 24).add(1, 8).add(1, 7).add(1, 6)
+                                          .add(1, 5).add(1, 4).add(1, 3).add(1, 2).add(1, 1);
+        final Function2D hx = gx.add(terms);
+        assertTrue(FUNCTION_ERROR, hx instanceof RationalPolynomial2D);
+        assertEquals(EVALUATION_ERROR, gx.evaluateAt(0.5) + terms.evaluateAt(0.5), hx.evaluateAt(0.5), ERROR);
+        // REMOVING them -> sparse again, equal to the first one
+        assertEquals(FUNCTION_ERROR, gx, hx.add(terms.opposeOnY()));
+        // TRY CREATING a coefficient too small for a fraction, both dense and sparse -> Exception
+        for (final int grade : new int[] {1, 9}) {
+            try {
+                Functions.polynomial(1e-10, grade);
+                fail(EXCEPTION_ERROR);
+            } catch (IllegalArgumentException e) {
+                assertEquals(EXCEPTION_ERROR, ZERO_TEXT, e.getMessage());
+            }
+        }
+        // COMPOSING with x a coefficient not given by a double -> same function
+        final Function2D small = Functions.polynomial(1.0 / 3, 8).powerOnY(21);
+        assertTrue(FUNCTION_ERROR, small instanceof SparsePolynomial2D);
+        assertEquals(FUNCTION_ERROR, small, small.compose(Functions.polynomial(1, 1)));
+        // CHECKSTYLE: MagicNumber ON
+    }
+
+    @Test
+    public void overflowTest() {
+        // CHECKSTYLE: MagicNumber OFF
+        // DILATING beyond long coefficients -> f(x) = 2⁹⁰x³, stored with big coefficients
+        final Function2D big = Functions.polynomial(1 << 30, 3).dilateOnY(1 << 30).dilateOnY(1 << 30);
+        final Function2D x = Functions.polynomial(1, 1);
+        final Function2D fx = big.add(x);
+        assertTrue(FUNCTION_ERROR, !(fx instanceof RationalPolynomial2D));
+        // REMOVING the big term -> x, equal to the one with long coefficients
+        assertEquals(FUNCTION_ERROR, x, fx.add(big.opposeOnY()));
+        assertEquals(FUNCTION_ERROR, x.hashCode(), fx.add(big.opposeOnY()).hashCode());
+        // POWERING -2x by 63 -> f(x) = -2⁶³x63, whose numerator has no opposite among long values
+        assertEquals(FUNCTION_ERROR, "-9223372036854775808x63", Functions.polynomial(-2, 1).powerOnY(63).toString());
+        assertEquals(FUNCTION_ERROR, "-9223372036854775808x63", Functions.polynomial(2, 1).powerOnY(63).opposeOnY().toString());
+        // CHECKSTYLE: MagicNumber ON
+    }
+
+    @Test
+    public void codecTest() throws IOException, ClassNotFoundException {
+        // CHECKSTYLE: MagicNumber OFF
+        // CREATING function -> f(x) = x³ - 3x with each representation
+        final Function2D fx = Functions.polynomial(1, 3).add(-3, 1);
+        final List<Function2D> functions = Arrays.asList(fx, Functions.primitivePolynomial(1, 3).add(-3, 1),
+                fx.powerOnX(16), Functions.polynomial(1.0 / 3, 1).translateOnY(1.0 / 7).powerOnY(30),
+                Functions.constant(-0.5), Functions.lazy(fx).dilateOnX(2));
+        for (final Function2D function : functions) {
+            // DECODING the encoded function -> same function
+            final Function2D decoded = FunctionCodec.decode(FunctionCodec.encode(function));
+            assertEquals(FUNCTION_ERROR, function.toString(), decoded.toString());
+            // SERIALIZING the function -> same function, as it is serialized with its encoding
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(function);
+            }
+            try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                assertEquals(FUNCTION_ERROR, function.toString(), input.readObject().toString());
+            }
+        }
+        assertSame(FUNCTION_ERROR, fx, FunctionCodec.decode(FunctionCodec.encode(fx)));
+        // ENCODING f(x) -> a byte for the representation, one for the grade and two for each coefficient
+        assertEquals(FUNCTION_ERROR, 10, FunctionCodec.encode(fx).length);
+        // TRY DECODING an incomplete encoding -> Exception
+        try {
+            FunctionCodec.decode(Arrays.copyOf(FunctionCodec.encode(fx), 5));
+            fail(EXCEPTION_ERROR);
+        } catch (IllegalArgumentException e) {
+            assertEquals(EXCEPTION_ERROR, "Incorrect Function Encoding", e.getMessage());
+        }
+        // TRY DECODING a double polynomial of a huge grade in a few bytes -> Exception, without allocating its coefficients
+        try {
+            FunctionCodec.decode(new byte[] {3, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+            fail(EXCEPTION_ERROR);
+        } catch (IllegalArgumentException e) {
+            assertEquals(EXCEPTION_ERROR, "Incorrect Function Encoding", e.getMessage());
+        }
+        // TRY DECODING a sparse polynomial of a huge grade in a few bytes -> Exception, as its dense copies would be huge
+        try {
+            FunctionCodec.decode(new byte[] {2, 1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 2, 1});
+            fail(EXCEPTION_ERROR);
+        } catch (IllegalArgumentException e) {
+            assertEquals(EXCEPTION_ERROR, "Incorrect Function Encoding", e.getMessage());
+        }
+        // CHECKSTYLE: MagicNumber ON
+    }
 }
@@ -14,6 +14,7 @@ import org.snailysis.model.utilities.Pair;
 import org.junit.jupiter.api.Test;
 import org.snailysis.model.entities.snail.InitialTrajectory;
 import org.snailysis.model.entities.snail.Operation;
+import org.snailysis.model.entities.snail.OperationCache;
 import org.snailysis.model.entities.snail.Snail;
 import org.snailysis.model.entities.snail.SnailBuilder;
 import org.snailysis.model.entities.snail.SnailObserver;
@@ -26,11 +27,11 @@ class TestSnail {
     private static final String COPY_ERROR = "Copy Error";
     private static final String OBSERVER_ERROR = "Observer Error";
     private static final String EXCEPTION_ERROR = "Exception Error";
+    private static final String CACHE_ERROR = "Cache Error";
 
     private static final String NOT_POSITIVE_VALUE_TEXT = "Not Positive Values Are Not Acceptable";
     private static final String ALREADY_SET_TEXT = "This Field Has Already Been Set";
     private static final String ALREADY_BUILT_TEXT = "This Snail Has Already Been Built";
-    private static final double INITIAL_POSITIVE_DEGREE = 45;
     private static final double ERROR = 0.01;
 
     private Snail defaultSnail(final InitialTrajectory traj) {
@@ -171,7 +172,7 @@ class TestSnail {
         assertEquals(COPY_ERROR, snail.getAngleDeg(), snailCopy.getAngleDeg(), ERROR);
         assertEquals(COPY_ERROR, snail.getCurrentPosition(), snailCopy.getCurrentPosition());
         snail.move();
-        snail.performOperation(Operation.DIFFERENTIATE);
+        snail.performOperation(Operation.INTEGRATE);
         assertNotEquals(COPY_ERROR, snail.getTrajectoryText(), snailCopy.getTrajectoryText());
         assertNotEquals(COPY_ERROR, snail.getAngleDeg(), snailCopy.getAngleDeg(), ERROR);
         assertNotEquals(COPY_ERROR, snail.getCurrentPosition(), snailCopy.getCurrentPosition());
@@ -197,19 +198,19 @@ class TestSnail {
          */
         InitialTrajectory traj = InitialTrajectory.POSITIVE_SQUARED_X;
         Snail snail = defaultSnail(traj);
-        assertEquals(VALUE_ERROR, INITIAL_POSITIVE_DEGREE, snail.getAngleDeg(), ERROR);
+        assertEquals(VALUE_ERROR, 0, snail.getAngleDeg(), ERROR);
         assertEquals(VALUE_ERROR, new Pair<>(1.0, 1.0 + traj.getTranslationY()), snail.moveAndGetPosition());
-        assertEquals(VALUE_ERROR, Math.atan(3), snail.getAngleRad(), ERROR);
+        assertEquals(VALUE_ERROR, Math.atan(2), snail.getAngleRad(), ERROR);
         assertEquals(VALUE_ERROR, new Pair<>(2.0, 4.0 + traj.getTranslationY()), snail.moveAndGetPosition());
         // CHECKSTYLE: MagicNumber OFF
-        assertEquals(VALUE_ERROR, Math.atan(5), snail.getAngleRad(), ERROR);
+        assertEquals(VALUE_ERROR, Math.atan(4), snail.getAngleRad(), ERROR);
         // CHECKSTYLE: MagicNumber ON
         /*
          * OPPOSE ON Y, x = 2 -> f(x) = -x², v = (2, 4)
          */
         snail.performOperation(Operation.NEGATIVE_Y);
         assertEquals(FUNCTION_ERROR, "-x²", snail.getTrajectoryText());
-        assertEquals(VALUE_ERROR, -INITIAL_POSITIVE_DEGREE, snail.getAngleDeg(), ERROR);
+        assertEquals(VALUE_ERROR, 0, snail.getAngleDeg(), ERROR);
         assertEquals(VALUE_ERROR, new Pair<>(2.0, 4.0 + traj.getTranslationY()), snail.getCurrentPosition());
         assertEquals(VALUE_ERROR, new Pair<>(3.0, 3.0 + traj.getTranslationY()), snail.moveAndGetPosition());
         /*
@@ -217,7 +218,7 @@ class TestSnail {
          */
         snail.performOperation(Operation.NEGATIVE_X);
         assertEquals(FUNCTION_ERROR, "-x²", snail.getTrajectoryText());
-        assertEquals(VALUE_ERROR, -INITIAL_POSITIVE_DEGREE, snail.getAngleDeg(), ERROR);
+        assertEquals(VALUE_ERROR, 0, snail.getAngleDeg(), ERROR);
         assertEquals(VALUE_ERROR, new Pair<>(3.0, 3.0 + traj.getTranslationY()), snail.getCurrentPosition());
         assertEquals(VALUE_ERROR, new Pair<>(4.0, 2.0 + traj.getTranslationY()), snail.moveAndGetPosition());
         /*
@@ -393,4 +394,70 @@ class TestSnail {
         snail.restart();
         assertEquals(OBSERVER_ERROR, Collections.emptyList(), notificationsList);
     }
+
+    @Test
+    public void zeroIntegralTest() {
+        /*
+         * the integral of 0 is x, even when the zero trajectory has been opposed (-0 = 0)
+         */
+        final Snail snail = defaultSnail(InitialTrajectory.CONSTANT);
+        snail.performOperation(Operation.NEGATIVE_Y);
+        snail.performOperation(Operation.INTEGRATE);
+        assertEquals(FUNCTION_ERROR, "x", snail.getTrajectoryText());
+    }
+
+    @Test
+    public void lookaheadTest() {
+        final Snail snail = defaultSnail(InitialTrajectory.HIGH_CONCAVITY_PARABOLA);
+        /*
+         * MOVING the snail well beyond the lookahead, changing its trajectory and its delta on the way:
+         * the positions and angles read from the lookahead are the ones computed for each point
+         */
+        // CHECKSTYLE: MagicNumber OFF
+        for (int i = 0; i < 300; i++) {
+            if (i == 100) {
+                snail.performOperation(Operation.DIFFERENTIATE);
+            } else if (i == 200) {
+                snail.setDelta(0.5);
+            }
+            snail.move();
+            final double x = snail.getCurrentX();
+            assertEquals(VALUE_ERROR, snail.getPositionAt(x), snail.getCurrentY(), ERROR);
+            assertEquals(VALUE_ERROR, Math.atan2(snail.getPositionAt(x + 1e-6) - snail.getPositionAt(x), 1e-6),
+                         snail.getAngleRad(), ERROR);
+        }
+        // CHECKSTYLE: MagicNumber ON
+    }
+
+    @Test
+    public void operationCacheTest() {
+        final OperationCache cache = OperationCache.getInstance();
+        cache.clear();
+        final Snail snail = defaultSnail(InitialTrajectory.HIGH_CONCAVITY_PARABOLA);
+        /*
+         * FIRST TIME: operations are computed
+         */
+        snail.performOperation(Operation.SQUARED_Y);
+        snail.performOperation(Operation.DIFFERENTIATE);
+        final String trajectory = snail.getTrajectoryText();
+        assertEquals(CACHE_ERROR, 0, cache.getHits());
+        assertEquals(CACHE_ERROR, 2, cache.getMisses());
+        assertEquals(CACHE_ERROR, 2, cache.size());
+        /*
+         * AFTER RESTARTING: operations are taken from the cache
+         */
+        snail.restart();
+        snail.performOperation(Operation.SQUARED_Y);
+        snail.performOperation(Operation.DIFFERENTIATE);
+        assertEquals(CACHE_ERROR, trajectory, snail.getTrajectoryText());
+        assertEquals(CACHE_ERROR, 2, cache.getHits());
+        assertEquals(CACHE_ERROR, 2, cache.getMisses());
+        /*
+         * CLEARING the cache
+         */
+        cache.clear();
+        assertEquals(CACHE_ERROR, 0, cache.size());
+        assertEquals(CACHE_ERROR, 0, cache.getHits());
+        assertEquals(CACHE_ERROR, 0, cache.getMisses());
+    }
 }